@@ -0,0 +1,32 @@
+package com.sc.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled, so each result also reports the allocation rate and bytes
+ * allocated per operation.
+ *
+ * Build with {@code mvn install} from the project root, then run {@code java -jar demo-zipcode-benchmark/target/benchmarks.jar}.
+ * Any standard JMH options may be passed, e.g. {@code LookupBenchmark -p rangeCount=1000} to run a subset.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Default runnable method.
+     * @param args Standard JMH command-line options
+     * @throws CommandLineOptionException when the options are invalid
+     * @throws RunnerException when a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,62 @@
+package com.sc.benchmark;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+import com.sc.util.ZipCodeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures consolidation of 10^3 to 10^7 ranges with overlapping, disjoint and adjacent distributions, both through
+ * {@link ZipCodeUtils#consolidate(List)} and the packed {@link ZipCodeRangeList#consolidate()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class ConsolidateBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"OVERLAPPING", "DISJOINT", "ADJACENT"})
+    private RangeData.Distribution distribution;
+
+    private List<ZipCodeRange> ranges;
+    private ZipCodeRangeList packed;
+
+    @Setup
+    public void setup() {
+        this.ranges = RangeData.generate(this.size, this.distribution, 2);
+        this.packed = ZipCodeRangeList.fromList(this.ranges);
+    }
+
+    @Benchmark
+    public List<ZipCodeRange> consolidateList() {
+        return ZipCodeUtils.consolidate(this.ranges);
+    }
+
+    /**
+     * Includes the cost of copying the packed array, since consolidation works in place.
+     */
+    @Benchmark
+    public ZipCodeRangeList consolidatePacked() {
+        ZipCodeRangeList copy = new ZipCodeRangeList(this.packed.size());
+        copy.addAll(this.packed);
+        return copy.consolidate();
+    }
+}
@@ -0,0 +1,91 @@
+package com.sc.benchmark;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.util.ZipCodeExclusionIndex;
+import com.sc.util.ZipCodeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single and batch lookup latency, comparing the linear scan of
+ * {@link ZipCodeUtils#isExcluded(int, List)} with the bitmap {@link ZipCodeExclusionIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+    private static final int BATCH = 1024;
+
+    @Param({"10", "1000", "10000"})
+    private int rangeCount;
+
+    private List<ZipCodeRange> ranges;
+    private ZipCodeExclusionIndex index;
+    private int[] zipCodes;
+    private String[] zipCodeStrings;
+
+    @Setup
+    public void setup() {
+        this.ranges = ZipCodeUtils.consolidate(RangeData.generate(this.rangeCount, RangeData.Distribution.DISJOINT, 3));
+        this.index = new ZipCodeExclusionIndex(this.ranges);
+        this.zipCodes = RangeData.zipCodes(BATCH, 4);
+        this.zipCodeStrings = new String[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            this.zipCodeStrings[i] = String.format("%05d", this.zipCodes[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void singleLinearScan(Blackhole bh) {
+        for (int zipCode : this.zipCodes) {
+            bh.consume(ZipCodeUtils.isExcluded(zipCode, this.ranges));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void singleIndex(Blackhole bh) {
+        for (int zipCode : this.zipCodes) {
+            bh.consume(this.index.isExcluded(zipCode));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public boolean[] batchIndex() {
+        return this.index.isExcludedBatch(this.zipCodes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public boolean[] batchIndexStrings() {
+        return this.index.isExcludedBatch(this.zipCodeStrings);
+    }
+
+    /**
+     * Includes building the index from the range list, as {@link ZipCodeUtils#isExcludedBatch(int[], List)} does.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public boolean[] batchUtils() {
+        return ZipCodeUtils.isExcludedBatch(this.zipCodes, this.ranges);
+    }
+}
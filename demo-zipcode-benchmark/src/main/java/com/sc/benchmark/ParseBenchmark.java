@@ -0,0 +1,93 @@
+package com.sc.benchmark;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.util.ZipCodeRangeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures range parsing throughput: the ZipCodeRange(String) constructor, the hand-written parser over strings and
+ * bytes, and the regular expression the constructor used to be based on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+    private static final int LINES = 1024;
+    private static final Pattern RANGE_PATTERN = Pattern.compile("\\[?\\s*(\\d{1,5})\\s*,\\s*(\\d{1,5})\\s*]?");
+
+    private String[] lines;
+    private byte[] bytes;
+    private int[] offsets;
+
+    @Setup
+    public void setup() {
+        List<ZipCodeRange> ranges = RangeData.generate(LINES, RangeData.Distribution.OVERLAPPING, 1);
+        this.lines = new String[LINES];
+        this.offsets = new int[LINES + 1];
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            ZipCodeRange range = ranges.get(i);
+            this.lines[i] = (i % 2 == 0) ? range.getRangeStr() : " " + range.getStart() + " , " + range.getEnd() + " ";
+            this.offsets[i] = sb.length();
+            sb.append(this.lines[i]);
+        }
+        this.offsets[LINES] = sb.length();
+        this.bytes = sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void constructor(Blackhole bh) {
+        for (String line : this.lines) {
+            bh.consume(new ZipCodeRange(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void parserString(Blackhole bh) {
+        for (String line : this.lines) {
+            bh.consume(ZipCodeRangeParser.parse(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void parserBytes(Blackhole bh) {
+        for (int i = 0; i < LINES; i++) {
+            bh.consume(ZipCodeRangeParser.parse(this.bytes, this.offsets[i], this.offsets[i + 1] - this.offsets[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void regexBaseline(Blackhole bh) {
+        for (String line : this.lines) {
+            Matcher matcher = RANGE_PATTERN.matcher(line);
+            if (matcher.matches()) {
+                bh.consume(Integer.valueOf(matcher.group(1)));
+                bh.consume(Integer.valueOf(matcher.group(2)));
+            }
+        }
+    }
+}
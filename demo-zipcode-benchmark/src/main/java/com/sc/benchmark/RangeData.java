@@ -0,0 +1,79 @@
+package com.sc.benchmark;
+
+import com.sc.model.ZipCodeRange;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates repeatable sets of ZIP code ranges for the benchmarks.
+ */
+public final class RangeData {
+
+    /**
+     * The shape of a generated range set.
+     */
+    public enum Distribution {
+        /**
+         * Random ranges of up to 1,000 ZIP codes, which overlap heavily and collapse into a few ranges.
+         */
+        OVERLAPPING,
+        /**
+         * Single ZIP codes separated by gaps, so nothing merges. The ZIP code space only holds 50,000 such ranges, so
+         * larger sets repeat them.
+         */
+        DISJOINT,
+        /**
+         * Single, touching ZIP codes that only merge through adjacency. Sets larger than 100,000 repeat them.
+         */
+        ADJACENT
+    }
+
+    /*
+     * Private constructor.
+     */
+    private RangeData() {
+        // prevent instantiation
+    }
+
+    /**
+     * Generates a shuffled list of ranges.
+     * @param count The number of ranges to generate
+     * @param distribution The shape of the ranges
+     * @param seed The random seed, so that every run uses the same data
+     * @return A List of unsorted ZipCodeRange objects
+     */
+    public static List<ZipCodeRange> generate(int count, Distribution distribution, long seed) {
+        Random random = new Random(seed);
+        List<ZipCodeRange> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            switch (distribution) {
+                case OVERLAPPING:
+                    int start = random.nextInt(100000);
+                    ranges.add(new ZipCodeRange(start, Math.min(99999, start + random.nextInt(1000))));
+                    break;
+                case DISJOINT:
+                    int zipCode = (i % 50000) * 2;
+                    ranges.add(new ZipCodeRange(zipCode, zipCode));
+                    break;
+                default:
+                    ranges.add(new ZipCodeRange(i % 100000, i % 100000));
+                    break;
+            }
+        }
+        Collections.shuffle(ranges, random);
+        return ranges;
+    }
+
+    /**
+     * Generates random ZIP codes to look up.
+     * @param count The number of ZIP codes to generate
+     * @param seed The random seed, so that every run uses the same data
+     * @return An int[] of ZIP codes from 0-99999
+     */
+    public static int[] zipCodes(int count, long seed) {
+        return new Random(seed).ints(count, 0, 100000).toArray();
+    }
+}
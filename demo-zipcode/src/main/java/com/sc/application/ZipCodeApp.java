@@ -1,11 +1,32 @@
 package com.sc.application;
 
+import com.sc.util.ExclusionFileWatcher;
+import com.sc.util.ExclusionRegistry;
+import com.sc.util.ZipCodeExclusionIndex;
+import com.sc.util.ZipCodeRangeFileLoader;
+import com.sc.util.ZipCodeRangeParser;
+import com.sc.util.ZipCodeRangeSnapshotFormat;
+import com.sc.util.ZipCodeStreamFilter;
 import com.sc.util.ZipCodeUtils;
 import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
 
 import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,12 +34,180 @@ import java.util.List;
  * A simple command-line application to test the ZIP code classes.
  */
 public class ZipCodeApp {
+    // progress messages go to stderr in filter mode, where stdout carries the filtered records
+    private static PrintStream log = System.out;
 
     /**
      * Default runnable method.
      * @param args Optional ZIP code values to be checked to see if they have been excluded {@code (see: excludeZipCode.txt)}
+     *
+     * Note: the bundled ranges are loaded from the excludeZipCode.snapshot generated at build time, falling back to
+     *       excludeZipCode.txt when it is not present. Set the {@code zipcode.exclude.file} system property to load
+     *       the ranges from an external file instead, or the {@code zipcode.snapshot.file} system property to load a
+     *       binary snapshot written by {@code --write-snapshot <file>}. Use {@code --watch <file>} to keep the ranges
+     *       up to date as the file changes (see {@link #watch(String[])}), or {@code --filter} to stream records from
+     *       stdin or a file to stdout (see {@link #filter(String[], ZipCodeExclusionIndex)}). Whatever the source,
+     *       the ranges are indexed once at startup and every ZIP code is checked against that index
      */
     public static void main(String[] args) {
+        if (args.length > 0 && "--watch".equals(args[0])) {
+            watch(args);
+            return;
+        }
+        boolean filterMode = args.length > 0 && "--filter".equals(args[0]);
+        if (filterMode) {
+            log = System.err;
+        }
+        ZipCodeRangeList ranges;
+        String snapshotFile = System.getProperty("zipcode.snapshot.file");
+        String excludeFile = System.getProperty("zipcode.exclude.file");
+        if (snapshotFile != null) {
+            ranges = loadSnapshotFile(Paths.get(snapshotFile));
+        }
+        else if (excludeFile != null) {
+            ranges = loadExcludeFile(Paths.get(excludeFile));
+        }
+        else if (ZipCodeApp.class.getResource("/excludeZipCode.snapshot") != null) {
+            ranges = loadSnapshotResource();
+        }
+        else {
+            ranges = loadExcludeResource();
+        }
+        ZipCodeExclusionIndex index = ZipCodeExclusionIndex.fromRangeList(ranges);
+        List<ZipCodeRange> excludes = ranges.toList();
+
+        if (args.length > 0 && "--write-snapshot".equals(args[0])) {
+            writeSnapshotFile(args, excludes);
+            return;
+        }
+        if (filterMode) {
+            filter(args, index);
+            return;
+        }
+        System.out.println("\nConsolidated exclusion ranges:\n" + excludes);
+
+        // if any command-line arguments, assume they are ZIP codes to test for exclusion, comparing against the
+        // ranges read in from excludeZipCode.txt
+        if (args.length > 0) {
+            System.out.println();
+            for (String arg : args) {
+                boolean excluded = index.isExcluded(ZipCodeRangeParser.parseZipCode(arg));
+                System.out.println("ZIP code '" + arg + "' excluded: " + excluded);
+            }
+        }
+    }
+
+    /**
+     * Long-running mode: loads the ranges from an external file and reloads them whenever the file changes, while
+     * checking ZIP codes read from stdin (one per line) against the latest ranges. Runs until stdin is closed.
+     * @param args {@code --watch <file>}
+     */
+    private static void watch(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: ZipCodeApp --watch <exclusion file>");
+            System.exit(1);
+        }
+        try (ExclusionRegistry registry = new ExclusionRegistry();
+             ExclusionFileWatcher watcher = new ExclusionFileWatcher(Paths.get(args[1]), registry)) {
+            watcher.start();
+            BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
+            for (String line; (line = br.readLine()) != null;) {
+                String zipCode = line.trim();
+                if (!zipCode.isEmpty()) {
+                    try {
+                        boolean excluded = registry.isExcluded(ZipCodeRangeParser.parseZipCode(zipCode));
+                        System.out.println("ZIP code '" + zipCode + "' excluded: " + excluded);
+                    }
+                    catch (IllegalArgumentException e) {
+                        System.err.println(e.getMessage());
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            exit(e);
+        }
+    }
+
+    /**
+     * Pipeline mode: reads newline-delimited records from a file or stdin, checks the ZIP code field of each against
+     * the ranges, and writes the allowed records (or the excluded records, or every record annotated with its result)
+     * to stdout. A records-per-second summary is printed to stderr at the end.
+     * @param args {@code --filter [--excluded | --annotate] [--delimiter <char>] [--column <zero-based index>]
+     *             [<file>]}
+     * @param index The index of the exclusion ranges
+     */
+    private static void filter(String[] args, ZipCodeExclusionIndex index) {
+        ZipCodeStreamFilter.Mode mode = ZipCodeStreamFilter.Mode.ALLOWED;
+        byte delimiter = ',';
+        int column = 0;
+        String file = null;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if ("--excluded".equals(args[i])) {
+                    mode = ZipCodeStreamFilter.Mode.EXCLUDED;
+                }
+                else if ("--annotate".equals(args[i])) {
+                    mode = ZipCodeStreamFilter.Mode.ANNOTATE;
+                }
+                else if ("--delimiter".equals(args[i]) && i + 1 < args.length) {
+                    String value = args[++i];
+                    delimiter = (byte) ("\\t".equals(value) ? '\t' : value.charAt(0));
+                }
+                else if ("--column".equals(args[i]) && i + 1 < args.length) {
+                    column = Integer.parseInt(args[++i]);
+                }
+                else if (file == null && !args[i].startsWith("--")) {
+                    file = args[i];
+                }
+                else {
+                    throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+            }
+        }
+        catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ZipCodeApp --filter [--excluded | --annotate] [--delimiter <char>] " +
+                "[--column <zero-based index>] [<file>]");
+            System.exit(1);
+        }
+
+        ZipCodeStreamFilter filter = new ZipCodeStreamFilter(index, mode, delimiter,
+            column, ZipCodeStreamFilter.DEFAULT_BUFFER_SIZE);
+        try (ReadableByteChannel in = file == null ? new FileInputStream(FileDescriptor.in).getChannel() :
+                 FileChannel.open(Paths.get(file), StandardOpenOption.READ);
+             WritableByteChannel out = new FileOutputStream(FileDescriptor.out).getChannel()) {
+            log.println(filter.filter(in, out));
+        }
+        catch (IOException e) {
+            exit(e);
+        }
+    }
+
+    /**
+     * Loads the consolidated ranges from the excludeZipCode.snapshot resource, which the build generates from the
+     * bundled excludeZipCode.txt (see {@link ZipCodeSnapshotGenerator}), skipping parsing and consolidation.
+     * @return The consolidated exclusion ranges
+     */
+    private static ZipCodeRangeList loadSnapshotResource() {
+        ZipCodeRangeList ranges = new ZipCodeRangeList(0);
+        try (InputStream in = ZipCodeApp.class.getResourceAsStream("/excludeZipCode.snapshot")) {
+            long startNanos = System.nanoTime();
+            ranges = ZipCodeRangeSnapshotFormat.readRanges(in);
+            log.println(String.format("\nLoaded %,d ranges from the bundled snapshot in %,d us", ranges.size(),
+                (System.nanoTime() - startNanos) / 1000));
+        }
+        catch (IOException e) {
+            exit(e);
+        }
+        return ranges;
+    }
+
+    /**
+     * Reads and consolidates the ranges from the bundled excludeZipCode.txt resource, skipping blank lines.
+     * @return The consolidated exclusion ranges
+     */
+    private static ZipCodeRangeList loadExcludeResource() {
         List<ZipCodeRange> inputRanges = new ArrayList<>();
         /*
             - ranges would typically be read from database
@@ -27,29 +216,86 @@ public class ZipCodeApp {
 
         try (BufferedReader br = new BufferedReader(new InputStreamReader(ZipCodeApp.class.getResourceAsStream("/excludeZipCode.txt")))) {
             for (String line; (line = br.readLine()) != null;) {
-                inputRanges.add(new ZipCodeRange(line));
+                // blank lines are skipped, the same as ZipCodeRangeFileLoader does for external files
+                if (!line.isEmpty()) {
+                    inputRanges.add(new ZipCodeRange(line));
+                }
             }
         }
         catch (IOException e) {
-            // this would normally be written to a log file instead of stderr
-            System.err.println(e.getMessage());
-            e.printStackTrace(System.err);
-            // this would never be used in production code and is here only for this demo app
-            System.exit(1);
+            exit(e);
         }
-        System.out.println("\nRaw input ranges:\n" + inputRanges);
+        log.println("\nRaw input ranges:\n" + inputRanges);
 
-        List<ZipCodeRange> excludes = ZipCodeUtils.consolidate(inputRanges);
-        System.out.println("\nConsolidated exclusion ranges:\n" + excludes);
+        return ZipCodeRangeList.fromList(ZipCodeUtils.consolidate(inputRanges));
+    }
 
-        // if any command-line arguments, assume they are ZIP codes to test for exclusion, comparing against the
-        // ranges read in from excludeZipCode.txt
-        if (args.length > 0) {
-            System.out.println();
-            for (String arg : args) {
-                System.out.println("ZIP code '" + arg + "' excluded: " + ZipCodeUtils.isExcluded(arg, excludes));
-            }
+    /**
+     * Loads and consolidates the ranges from an external file, which may be too large to read line by line.
+     * @param file The file containing one range per line
+     * @return The consolidated exclusion ranges
+     */
+    private static ZipCodeRangeList loadExcludeFile(Path file) {
+        ZipCodeRangeList ranges = new ZipCodeRangeList(0);
+        try {
+            ZipCodeRangeFileLoader.Result result = new ZipCodeRangeFileLoader().load(file);
+            log.println("\n" + result);
+            ranges = ZipCodeRangeList.fromList(result.getRanges());
         }
+        catch (IOException e) {
+            exit(e);
+        }
+        return ranges;
+    }
+
+    /**
+     * Loads the consolidated ranges from a binary snapshot file, skipping parsing and consolidation.
+     * @param file The snapshot file
+     * @return The consolidated exclusion ranges
+     */
+    private static ZipCodeRangeList loadSnapshotFile(Path file) {
+        ZipCodeRangeList ranges = new ZipCodeRangeList(0);
+        try (InputStream in = Files.newInputStream(file)) {
+            long startNanos = System.nanoTime();
+            ranges = ZipCodeRangeSnapshotFormat.readRanges(in);
+            log.println(String.format("\nLoaded %,d ranges from snapshot %s in %,d us", ranges.size(), file,
+                (System.nanoTime() - startNanos) / 1000));
+        }
+        catch (IOException e) {
+            exit(e);
+        }
+        return ranges;
+    }
+
+    /**
+     * Writes the consolidated ranges to a binary snapshot file.
+     * @param args {@code --write-snapshot <file>}
+     * @param excludes The consolidated exclusion ranges
+     */
+    private static void writeSnapshotFile(String[] args, List<ZipCodeRange> excludes) {
+        if (args.length != 2) {
+            System.err.println("Usage: ZipCodeApp --write-snapshot <snapshot file>");
+            System.exit(1);
+        }
+        try (OutputStream out = Files.newOutputStream(Paths.get(args[1]))) {
+            ZipCodeRangeSnapshotFormat.write(excludes, out);
+            System.out.println("\nWrote " + excludes.size() + " ranges to snapshot " + args[1]);
+        }
+        catch (IOException e) {
+            exit(e);
+        }
+    }
+
+    /**
+     * Reports a fatal error and terminates the application.
+     * @param e The cause of the error
+     */
+    private static void exit(Exception e) {
+        // this would normally be written to a log file instead of stderr
+        System.err.println(e.getMessage());
+        e.printStackTrace(System.err);
+        // this would never be used in production code and is here only for this demo app
+        System.exit(1);
     }
 
 }
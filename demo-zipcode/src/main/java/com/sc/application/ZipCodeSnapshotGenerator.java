@@ -0,0 +1,47 @@
+package com.sc.application;
+
+import com.sc.util.ZipCodeRangeFileLoader;
+import com.sc.util.ZipCodeRangeSnapshotFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * A build-time tool that consolidates a text file of ZIP code ranges into a binary snapshot.
+ *
+ * The Maven build runs it during {@code process-classes} to turn the bundled excludeZipCode.txt into
+ * excludeZipCode.snapshot next to it, so that {@link ZipCodeApp} can load the consolidated ranges at startup without
+ * parsing or consolidating anything.
+ */
+public class ZipCodeSnapshotGenerator {
+
+    /*
+     * Private constructor.
+     */
+    private ZipCodeSnapshotGenerator() {
+        // prevent instantiation
+    }
+
+    /**
+     * Default runnable method.
+     * @param args {@code <range text file> <snapshot file>}
+     * @throws IOException when the text file cannot be read or the snapshot cannot be written
+     * @throws IllegalArgumentException when the arguments are missing or a line is not a valid ZIP code range
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ZipCodeSnapshotGenerator <range text file> <snapshot file>");
+        }
+        Path source = Paths.get(args[0]);
+        Path target = Paths.get(args[1]);
+        ZipCodeRangeFileLoader.Result result = new ZipCodeRangeFileLoader().load(source);
+        try (OutputStream out = Files.newOutputStream(target)) {
+            ZipCodeRangeSnapshotFormat.write(result.getRanges(), out);
+        }
+        System.out.println(String.format("Wrote %,d consolidated ranges (from %,d) to %s", result.getRanges().size(),
+            result.getLineCount(), target));
+    }
+}
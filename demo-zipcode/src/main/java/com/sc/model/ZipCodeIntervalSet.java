@@ -0,0 +1,199 @@
+package com.sc.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A mutable, always-consolidated set of ZIP code ranges that supports adding and removing ranges in O(log n) without
+ * rebuilding the whole set.
+ *
+ * Ranges are kept in a sorted map keyed on their start. Adding a range merges it with any overlapping or adjacent
+ * neighbours (the same rules as {@link ZipCodeRange#isMergeable(ZipCodeRange)}), and removing a range trims or splits
+ * the ranges it overlaps. Edits are serialized, but lookups never block: an edit writes its new ranges before removing
+ * the old ones, so a concurrent {@link #contains(int)} sees each ZIP code either before or after the edit.
+ */
+public class ZipCodeIntervalSet {
+    private final ConcurrentSkipListMap<Integer, Integer> ranges = new ConcurrentSkipListMap<>();
+
+    /**
+     * Creates an empty set.
+     */
+    public ZipCodeIntervalSet() {
+        // empty
+    }
+
+    /**
+     * Creates a set containing the specified ranges.
+     * @param ranges The ranges to be added; may be unsorted or overlapping, and null is treated as an empty list
+     */
+    public ZipCodeIntervalSet(List<ZipCodeRange> ranges) {
+        if (ranges != null) {
+            for (ZipCodeRange range : ranges) {
+                add(range);
+            }
+        }
+    }
+
+    /**
+     * Adds a range to the set, merging it with any overlapping or adjacent ranges.
+     * @param range The range to be added
+     */
+    public void add(ZipCodeRange range) {
+        addRange(range.getStart(), range.getEnd());
+    }
+
+    /**
+     * Adds a range to the set, merging it with any overlapping or adjacent ranges.
+     * @param start The starting ZIP code
+     * @param end The ending ZIP code
+     * @throws IllegalArgumentException when the ZIP code value is not within the supported range
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public void add(int start, int end) {
+        validate(start, end);
+        addRange(Math.min(start, end), Math.max(start, end));
+    }
+
+    /**
+     * Adds a validated range, with the start no greater than the end.
+     */
+    private synchronized void addRange(int start, int end) {
+        int newStart = start;
+        int newEnd = end;
+        Map.Entry<Integer, Integer> floor = this.ranges.floorEntry(start);
+        if (floor != null && floor.getValue() >= start - 1) {
+            newStart = floor.getKey();
+            newEnd = Math.max(newEnd, floor.getValue());
+        }
+        // every range starting within (newStart, newEnd + 1] is absorbed; only the last one can extend the end
+        ConcurrentNavigableMap<Integer, Integer> absorbed = this.ranges.subMap(newStart, false, newEnd + 1, true);
+        if (!absorbed.isEmpty()) {
+            newEnd = Math.max(newEnd, absorbed.lastEntry().getValue());
+        }
+        this.ranges.put(newStart, newEnd);
+        absorbed.clear();
+    }
+
+    /**
+     * Removes a range from the set, trimming or splitting any ranges it overlaps.
+     * @param range The range to be removed
+     */
+    public void remove(ZipCodeRange range) {
+        removeRange(range.getStart(), range.getEnd());
+    }
+
+    /**
+     * Removes a range from the set, trimming or splitting any ranges it overlaps.
+     * @param start The starting ZIP code
+     * @param end The ending ZIP code
+     * @throws IllegalArgumentException when the ZIP code value is not within the supported range
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public void remove(int start, int end) {
+        validate(start, end);
+        removeRange(Math.min(start, end), Math.max(start, end));
+    }
+
+    /**
+     * Removes a validated range, with the start no greater than the end.
+     */
+    private synchronized void removeRange(int start, int end) {
+        Map.Entry<Integer, Integer> right = this.ranges.floorEntry(end);
+        if (right != null && right.getValue() > end) {
+            this.ranges.put(end + 1, right.getValue());
+        }
+        Map.Entry<Integer, Integer> left = this.ranges.lowerEntry(start);
+        if (left != null && left.getValue() >= start) {
+            this.ranges.put(left.getKey(), start - 1);
+        }
+        this.ranges.subMap(start, true, end, true).clear();
+    }
+
+    /**
+     * Removes all of the ranges from this set.
+     */
+    public synchronized void clear() {
+        this.ranges.clear();
+    }
+
+    /**
+     * Checks if the specified ZIP code is contained by any range in this set.
+     * @param zipCode The ZIP code to check
+     * @return true if the specified ZIP code is contained by this set; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public boolean contains(int zipCode) {
+        if (zipCode < 0 || zipCode > 99999) {
+            throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+        }
+        Map.Entry<Integer, Integer> floor = this.ranges.floorEntry(zipCode);
+        return floor != null && zipCode <= floor.getValue();
+    }
+
+    /**
+     * Checks if the set contains no ranges.
+     * @return true if the set is empty; otherwise false
+     */
+    public boolean isEmpty() {
+        return this.ranges.isEmpty();
+    }
+
+    /**
+     * Retrieves the number of consolidated ranges in this set.
+     * @return The number of ranges
+     */
+    public int size() {
+        return this.ranges.size();
+    }
+
+    /**
+     * Returns the consolidated ranges as new ZipCodeRange objects.
+     * @return A List of sorted (ascending) ZipCodeRange objects
+     */
+    public synchronized List<ZipCodeRange> toList() {
+        List<ZipCodeRange> result = new ArrayList<>(this.ranges.size());
+        for (Map.Entry<Integer, Integer> entry : this.ranges.entrySet()) {
+            result.add(new ZipCodeRange(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the consolidated ranges as a packed list.
+     * @return A sorted (ascending) ZipCodeRangeList
+     */
+    public synchronized ZipCodeRangeList toRangeList() {
+        ZipCodeRangeList result = new ZipCodeRangeList(this.ranges.size());
+        for (Map.Entry<Integer, Integer> entry : this.ranges.entrySet()) {
+            result.add(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Validates the start and end of a range.
+     */
+    private static void validate(int start, int end) {
+        if (start < 0 || start > 99999) {
+            throw new IllegalArgumentException("Invalid start value for ZIP code range: " + start);
+        }
+        else if (end < 0 || end > 99999) {
+            throw new IllegalArgumentException("Invalid end value for ZIP code range: " + end);
+        }
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        return "ZipCodeIntervalSet {size: " + this.ranges.size() + "}";
+    }
+}
@@ -1,12 +1,14 @@
 package com.sc.model;
 
+import com.sc.util.ZipCodeRangeParser;
+
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static com.sc.util.ZipCodeUtils.isInRange;
+import static com.sc.util.ZipCodeUtils.unpackEnd;
+import static com.sc.util.ZipCodeUtils.unpackStart;
 
 /**
  * A class to store a range of ZIP codes.
@@ -14,7 +16,6 @@ import static com.sc.util.ZipCodeUtils.isInRange;
 public class ZipCodeRange implements Comparable<ZipCodeRange> {
     private int start;
     private int end;
-    private static Pattern rangePattern = Pattern.compile("\\[?\\s*(\\d{1,5})\\s*,\\s*(\\d{1,5})\\s*]?");
 
     /**
      * A comparator that uses both {@code start} and {@code end} values.
@@ -30,13 +31,21 @@ public class ZipCodeRange implements Comparable<ZipCodeRange> {
      * Note: the [] are optional and there may be any amount of whitespace before/after the comma and within the brackets
      */
     public ZipCodeRange(String range) {
-        Matcher matcher = rangePattern.matcher(range);
-        if (matcher.matches()) {
-            setRange(Integer.valueOf(matcher.group(1)), Integer.valueOf(matcher.group(2)));
-        }
-        else {
-            throw new IllegalArgumentException("Invalid ZIP code range: " + range);
-        }
+        long packed = ZipCodeRangeParser.parse(range);
+        setRange(unpackStart(packed), unpackEnd(packed));
+    }
+
+    /**
+     * Sets the start and end ZIP code ranges.
+     * @param start The starting ZIP code, ranging from 0-99999
+     * @param end The ending ZIP code, ranging from 0-99999
+     * @throws IllegalArgumentException when the ZIP code value is not within the supported range
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public ZipCodeRange(int start, int end) {
+        setRange(start, end);
     }
 
     /**
@@ -0,0 +1,289 @@
+package com.sc.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static com.sc.util.ZipCodeUtils.packRange;
+import static com.sc.util.ZipCodeUtils.unpackEnd;
+import static com.sc.util.ZipCodeUtils.unpackStart;
+
+/**
+ * A growable list of ZIP code ranges stored as primitives.
+ *
+ * Each range is packed into a single {@code long} (see {@link com.sc.util.ZipCodeUtils#packRange(int, int)}), so a
+ * million ranges cost 8 MB in one array instead of a million ZipCodeRange objects. Because packed values sort in the
+ * same order as {@link ZipCodeRange#COMPARATOR}, sorting and consolidation work directly on the array.
+ *
+ * Note: this class is not thread-safe.
+ */
+public class ZipCodeRangeList {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] ranges;
+    private int size;
+
+    /**
+     * A callback that receives the start and end of each range without boxing.
+     */
+    @FunctionalInterface
+    public interface RangeConsumer {
+        /**
+         * Accepts a single range.
+         * @param start The starting ZIP code
+         * @param end The ending ZIP code
+         */
+        void accept(int start, int end);
+    }
+
+    /**
+     * Creates an empty list.
+     */
+    public ZipCodeRangeList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty list with the specified initial capacity.
+     * @param initialCapacity The number of ranges that can be added before the list needs to grow
+     * @throws IllegalArgumentException when the capacity is negative
+     */
+    public ZipCodeRangeList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+        }
+        this.ranges = new long[initialCapacity];
+    }
+
+    /**
+     * Creates a list containing the same ranges as the specified List&lt;ZipCodeRange&gt;, in the same order.
+     * @param ranges The ranges to be copied; null is treated as an empty list
+     * @return The newly created list
+     */
+    public static ZipCodeRangeList fromList(List<ZipCodeRange> ranges) {
+        ZipCodeRangeList result = new ZipCodeRangeList(ranges == null ? 0 : ranges.size());
+        if (ranges != null) {
+            for (ZipCodeRange range : ranges) {
+                result.add(range);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Appends a range to the end of the list.
+     * @param start The starting ZIP code
+     * @param end The ending ZIP code
+     * @throws IllegalArgumentException when the ZIP code value is not within the supported range
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public void add(int start, int end) {
+        if (start < 0 || start > 99999) {
+            throw new IllegalArgumentException("Invalid start value for ZIP code range: " + start);
+        }
+        else if (end < 0 || end > 99999) {
+            throw new IllegalArgumentException("Invalid end value for ZIP code range: " + end);
+        }
+        addPacked(start <= end ? packRange(start, end) : packRange(end, start));
+    }
+
+    /**
+     * Appends a range to the end of the list.
+     * @param range The range to be added
+     */
+    public void add(ZipCodeRange range) {
+        addPacked(packRange(range.getStart(), range.getEnd()));
+    }
+
+    /**
+     * Appends all of the ranges of another list to the end of this list.
+     * @param other The list whose ranges are to be added
+     */
+    public void addAll(ZipCodeRangeList other) {
+        ensureCapacity(this.size + other.size);
+        System.arraycopy(other.ranges, 0, this.ranges, this.size, other.size);
+        this.size += other.size;
+    }
+
+    /**
+     * Appends an already validated, packed range to the end of the list.
+     * @param packed The packed range, with the start no greater than the end
+     */
+    public void addPacked(long packed) {
+        if (this.size == this.ranges.length) {
+            ensureCapacity(this.size + 1);
+        }
+        this.ranges[this.size++] = packed;
+    }
+
+    /**
+     * Removes all of the ranges from this list.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Sorts and merges the ranges in place into the shortest possible grouping, using the same rules as
+     * {@link com.sc.util.ZipCodeUtils#consolidate(List)} (overlapping and adjacent ranges are merged).
+     * @return This list, for chaining
+     */
+    public ZipCodeRangeList consolidate() {
+        sort();
+        if (this.size > 1) {
+            long[] ranges = this.ranges;
+            int last = 0;
+            int lastEnd = unpackEnd(ranges[0]);
+            for (int i = 1; i < this.size; i++) {
+                int start = unpackStart(ranges[i]);
+                int end = unpackEnd(ranges[i]);
+                if (start <= lastEnd + 1) {
+                    if (end > lastEnd) {
+                        lastEnd = end;
+                        ranges[last] = packRange(unpackStart(ranges[last]), lastEnd);
+                    }
+                }
+                else {
+                    ranges[++last] = ranges[i];
+                    lastEnd = end;
+                }
+            }
+            this.size = last + 1;
+        }
+        return this;
+    }
+
+    /**
+     * Passes the start and end of each range, in list order, to the specified consumer.
+     * @param consumer The consumer to receive each range
+     */
+    public void forEach(RangeConsumer consumer) {
+        for (int i = 0; i < this.size; i++) {
+            consumer.accept(unpackStart(this.ranges[i]), unpackEnd(this.ranges[i]));
+        }
+    }
+
+    /**
+     * Creates a new ZipCodeRange for the range at the specified position.
+     * @param index The position of the range
+     * @return The newly created ZipCodeRange
+     * @throws IndexOutOfBoundsException when the index is not within the list
+     */
+    public ZipCodeRange get(int index) {
+        long packed = getPacked(index);
+        return new ZipCodeRange(unpackStart(packed), unpackEnd(packed));
+    }
+
+    /**
+     * Retrieves the end of the range at the specified position.
+     * @param index The position of the range
+     * @return The ending ZIP code
+     * @throws IndexOutOfBoundsException when the index is not within the list
+     */
+    public int getEnd(int index) {
+        return unpackEnd(getPacked(index));
+    }
+
+    /**
+     * Retrieves the packed range at the specified position.
+     * @param index The position of the range
+     * @return The packed range
+     * @throws IndexOutOfBoundsException when the index is not within the list
+     */
+    public long getPacked(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        return this.ranges[index];
+    }
+
+    /**
+     * Retrieves the start of the range at the specified position.
+     * @param index The position of the range
+     * @return The starting ZIP code
+     * @throws IndexOutOfBoundsException when the index is not within the list
+     */
+    public int getStart(int index) {
+        return unpackStart(getPacked(index));
+    }
+
+    /**
+     * Checks if the list contains no ranges.
+     * @return true if the list is empty; otherwise false
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Retrieves the number of ranges in the list.
+     * @return The number of ranges
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Sorts the ranges in place, in the same order as {@link ZipCodeRange#COMPARATOR}.
+     */
+    public void sort() {
+        Arrays.sort(this.ranges, 0, this.size);
+    }
+
+    /**
+     * Returns the packed ranges as a stream, in list order.
+     * @return A LongStream of packed ranges
+     */
+    public LongStream stream() {
+        return Arrays.stream(this.ranges, 0, this.size);
+    }
+
+    /**
+     * Returns the ranges as new ZipCodeRange objects, in list order.
+     * @return A List of ZipCodeRange objects
+     */
+    public List<ZipCodeRange> toList() {
+        List<ZipCodeRange> result = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            result.add(new ZipCodeRange(unpackStart(this.ranges[i]), unpackEnd(this.ranges[i])));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a copy of the packed ranges, in list order.
+     * @return A long[] of packed ranges
+     */
+    public long[] toPackedArray() {
+        return Arrays.copyOf(this.ranges, this.size);
+    }
+
+    /**
+     * Grows the backing array to hold at least the specified number of ranges.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.ranges.length) {
+            int grown = this.ranges.length + (this.ranges.length >> 1);
+            int newCapacity = Math.max(capacity, Math.max(DEFAULT_CAPACITY, grown));
+            this.ranges = Arrays.copyOf(this.ranges, newCapacity);
+        }
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ZipCodeRangeList {size: ").append(this.size).append(", ranges: [");
+        for (int i = 0; i < this.size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(String.format("[%05d,%05d]", unpackStart(this.ranges[i]), unpackEnd(this.ranges[i])));
+        }
+        return sb.append("]}").toString();
+    }
+}
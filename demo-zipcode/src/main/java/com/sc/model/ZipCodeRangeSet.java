@@ -0,0 +1,260 @@
+package com.sc.model;
+
+import com.sc.util.ZipCodeExclusionIndex;
+import com.sc.util.ZipCodeMetricsSink;
+import com.sc.util.ZipCodeRangeOperations;
+import com.sc.util.ZipCodeRangeParser;
+import com.sc.util.ZipCodeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A set of ZIP code ranges that accepts raw (unsorted, overlapping) ranges and consolidates them lazily, so callers
+ * get consolidated lookups without having to call {@link ZipCodeUtils#consolidate(List)} themselves.
+ *
+ * Additions are appended to a packed {@link ZipCodeRangeList} and removals are queued alongside them, recording how
+ * many ranges had been added when they were made; both only mark the cached lookup structure as stale. The first query
+ * after a change applies the queued removals in order, each subtracting from the ranges added before it, consolidates
+ * the result and builds a {@link ZipCodeExclusionIndex} from it, so any number of consecutive additions and removals
+ * costs a single rebuild. Until the next change, queries read the cached index without locking.
+ */
+public final class ZipCodeRangeSet {
+    private final ZipCodeRangeList ranges = new ZipCodeRangeList();
+    private final List<Removal> removals = new ArrayList<>();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Creates an empty set.
+     */
+    public ZipCodeRangeSet() {
+        // empty
+    }
+
+    /**
+     * Creates a set containing the specified ranges.
+     * @param ranges The ranges to be added; may be unsorted or overlapping, and null is treated as an empty list
+     */
+    public ZipCodeRangeSet(List<ZipCodeRange> ranges) {
+        addAll(ranges);
+    }
+
+    /**
+     * Adds a range to the set.
+     * @param start The starting ZIP code
+     * @param end The ending ZIP code
+     * @throws IllegalArgumentException when the ZIP code value is not within the supported range
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public synchronized void add(int start, int end) {
+        this.ranges.add(start, end);
+        this.snapshot = null;
+    }
+
+    /**
+     * Adds a range to the set.
+     * @param range The range to be added
+     */
+    public synchronized void add(ZipCodeRange range) {
+        this.ranges.add(range);
+        this.snapshot = null;
+    }
+
+    /**
+     * Adds several ranges to the set.
+     * @param ranges The ranges to be added; may be unsorted or overlapping, and null is treated as an empty list
+     */
+    public synchronized void addAll(List<ZipCodeRange> ranges) {
+        if (ranges != null && !ranges.isEmpty()) {
+            for (ZipCodeRange range : ranges) {
+                this.ranges.add(range);
+            }
+            this.snapshot = null;
+        }
+    }
+
+    /**
+     * Removes every ZIP code in a range from the set, trimming or splitting the ranges it overlaps.
+     * @param start The starting ZIP code
+     * @param end The ending ZIP code
+     * @throws IllegalArgumentException when the ZIP code value is not within the supported range
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public synchronized void remove(int start, int end) {
+        Removal last = this.removals.isEmpty() ? null : this.removals.get(this.removals.size() - 1);
+        // consecutive removals subtract from the same ranges, so they share one queue entry
+        if (last == null || last.addedCount != this.ranges.size()) {
+            last = new Removal(this.ranges.size());
+            this.removals.add(last);
+        }
+        last.ranges.add(start, end);
+        this.snapshot = null;
+    }
+
+    /**
+     * Removes every ZIP code in a range from the set, trimming or splitting the ranges it overlaps.
+     * @param range The range to be removed
+     */
+    public void remove(ZipCodeRange range) {
+        remove(range.getStart(), range.getEnd());
+    }
+
+    /**
+     * Removes every range from the set.
+     */
+    public synchronized void clear() {
+        this.ranges.clear();
+        this.removals.clear();
+        this.snapshot = null;
+    }
+
+    /**
+     * Checks if a ZIP code is contained by the set, consolidating the set first if it has changed.
+     * @param zipCode The ZIP code to check
+     * @return true if the ZIP code is contained by one of the ranges; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public boolean contains(int zipCode) {
+        return current().index.isExcluded(zipCode);
+    }
+
+    /**
+     * Checks if a ZIP code is contained by the set, consolidating the set first if it has changed.
+     * @param zipCode The 5-digit ZIP code to check
+     * @return true if the ZIP code is contained by one of the ranges; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not exactly 5 digits
+     */
+    public boolean contains(String zipCode) {
+        return contains(ZipCodeRangeParser.parseZipCode(zipCode));
+    }
+
+    /**
+     * Retrieves the total number of individual ZIP codes contained by the set.
+     * @return The number of ZIP codes
+     */
+    public int getZipCodeCount() {
+        return current().index.getExcludedCount();
+    }
+
+    /**
+     * Checks if the set contains no ranges.
+     * @return true if the set is empty; otherwise false
+     */
+    public synchronized boolean isEmpty() {
+        // a queued removal may have emptied the set, which only a rebuild can tell
+        return this.removals.isEmpty() ? this.ranges.isEmpty() : current().consolidated.isEmpty();
+    }
+
+    /**
+     * Retrieves the number of consolidated ranges in the set.
+     * @return The range count
+     */
+    public int size() {
+        return current().consolidated.size();
+    }
+
+    /**
+     * Retrieves the consolidated ranges of the set.
+     * @return A List of ZipCodeRange objects, sorted by start
+     */
+    public List<ZipCodeRange> toList() {
+        return current().consolidated.toList();
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        return "ZipCodeRangeSet {size: " + size() + "}";
+    }
+
+    /**
+     * Returns the cached lookup structure, rebuilding it first if the set has changed since it was built.
+     */
+    private Snapshot current() {
+        Snapshot result = this.snapshot;
+        if (result == null) {
+            result = rebuild();
+        }
+        return result;
+    }
+
+    /**
+     * Applies the queued removals, consolidates the ranges in place and builds a new lookup structure, unless another
+     * thread already has.
+     */
+    private synchronized Snapshot rebuild() {
+        Snapshot result = this.snapshot;
+        if (result == null) {
+            ZipCodeMetricsSink sink = ZipCodeUtils.getMetricsSink();
+            long startNanos = System.nanoTime();
+            int inputCount = this.ranges.size();
+            applyRemovals();
+            this.ranges.consolidate();
+            // the snapshot gets its own copy, since later additions append to the list
+            ZipCodeRangeList consolidated = new ZipCodeRangeList(this.ranges.size());
+            consolidated.addAll(this.ranges);
+            sink.recordConsolidation(inputCount, consolidated.size(), System.nanoTime() - startNanos);
+            result = new Snapshot(consolidated, ZipCodeExclusionIndex.fromRangeList(consolidated));
+            this.snapshot = result;
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the ranges with the result of applying the queued removals in order: each removal is subtracted from
+     * the ranges added before it, and the ranges added after it are merged in afterwards.
+     */
+    private void applyRemovals() {
+        if (!this.removals.isEmpty()) {
+            ZipCodeRangeList result = new ZipCodeRangeList();
+            int applied = 0;
+            for (Removal removal : this.removals) {
+                for (int i = applied; i < removal.addedCount; i++) {
+                    result.addPacked(this.ranges.getPacked(i));
+                }
+                applied = removal.addedCount;
+                result = ZipCodeRangeOperations.difference(result.consolidate(), removal.ranges.consolidate());
+            }
+            for (int i = applied; i < this.ranges.size(); i++) {
+                result.addPacked(this.ranges.getPacked(i));
+            }
+            this.ranges.clear();
+            this.ranges.addAll(result);
+            this.removals.clear();
+        }
+    }
+
+    /**
+     * A run of consecutive removals, queued until the next rebuild.
+     */
+    private static final class Removal {
+        private final int addedCount;
+        private final ZipCodeRangeList ranges = new ZipCodeRangeList();
+
+        /**
+         * @param addedCount The number of ranges that had been added when the removals were made
+         */
+        private Removal(int addedCount) {
+            this.addedCount = addedCount;
+        }
+    }
+
+    /**
+     * An immutable consolidated version of the set and its index.
+     */
+    private static final class Snapshot {
+        private final ZipCodeRangeList consolidated;
+        private final ZipCodeExclusionIndex index;
+
+        private Snapshot(ZipCodeRangeList consolidated, ZipCodeExclusionIndex index) {
+            this.consolidated = consolidated;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.sc.model;
+
+import com.sc.util.ZipCodeRangeParser;
+
+import java.util.Comparator;
+
+/**
+ * An immutable range of ZIP+4 codes, stored as 9-digit values from 0 (00000-0000) to 999999999 (99999-9999).
+ *
+ * A 5-digit ZIP code covers all of its ZIP+4 codes, so 5-digit ranges keep working: {@code 94133} as a start means
+ * {@code 94133-0000}, and as an end means {@code 94133-9999}.
+ */
+public class ZipPlus4Range {
+    /**
+     * The largest ZIP+4 code value.
+     */
+    public static final int MAX_ZIP_PLUS_4 = 999999999;
+
+    /**
+     * The number of ZIP+4 codes within each 5-digit ZIP code.
+     */
+    public static final int PLUS_4_COUNT = 10000;
+
+    /**
+     * A comparator that uses both {@code start} and {@code end} values.
+     */
+    public static final Comparator<ZipPlus4Range> COMPARATOR = Comparator.comparingInt(ZipPlus4Range::getStart)
+        .thenComparingInt(ZipPlus4Range::getEnd);
+
+    private final int start;
+    private final int end;
+
+    /**
+     * Sets the start and end ZIP+4 code ranges.
+     * @param range A string of exactly two ZIP codes in the format of [#####-####,#####-####]
+     * @throws IllegalArgumentException when the format of the range is incorrect
+     *
+     * Note: the [] are optional and there may be any amount of whitespace before/after the comma and within the
+     *       brackets. Either value may be a 5-digit ZIP code, or a ZIP+4 code with or without the hyphen.
+     */
+    public ZipPlus4Range(String range) {
+        String trimmed = range.trim();
+        if (trimmed.startsWith("[") && trimmed.endsWith("]")) {
+            trimmed = trimmed.substring(1, trimmed.length() - 1);
+        }
+        int comma = trimmed.indexOf(',');
+        if (comma < 0 || trimmed.indexOf(',', comma + 1) >= 0) {
+            throw new IllegalArgumentException("Invalid ZIP+4 code range: " + range);
+        }
+        int first = parse(trimmed.substring(0, comma).trim(), false, range);
+        int second = parse(trimmed.substring(comma + 1).trim(), true, range);
+        this.start = Math.min(first, second);
+        this.end = Math.max(first, second);
+    }
+
+    /**
+     * Sets the start and end ZIP+4 code ranges.
+     * @param start The starting ZIP+4 code, ranging from 0-999999999
+     * @param end The ending ZIP+4 code, ranging from 0-999999999
+     * @throws IllegalArgumentException when the ZIP+4 code value is not within the supported range
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public ZipPlus4Range(int start, int end) {
+        if (start < 0 || start > MAX_ZIP_PLUS_4) {
+            throw new IllegalArgumentException("Invalid start value for ZIP+4 code range: " + start);
+        }
+        else if (end < 0 || end > MAX_ZIP_PLUS_4) {
+            throw new IllegalArgumentException("Invalid end value for ZIP+4 code range: " + end);
+        }
+        this.start = Math.min(start, end);
+        this.end = Math.max(start, end);
+    }
+
+    /**
+     * Creates a range covering every ZIP+4 code within a 5-digit ZIP code range.
+     * @param range The 5-digit ZIP code range
+     * @return The newly created range
+     */
+    public static ZipPlus4Range fromZipCodeRange(ZipCodeRange range) {
+        return new ZipPlus4Range(range.getStart() * PLUS_4_COUNT, range.getEnd() * PLUS_4_COUNT + PLUS_4_COUNT - 1);
+    }
+
+    /**
+     * Checks if the specified ZIP+4 code is within this range.
+     * @param zipPlus4 The ZIP+4 code value
+     * @return true if the code is within this range; otherwise false
+     */
+    public boolean contains(int zipPlus4) {
+        return zipPlus4 >= this.start && zipPlus4 <= this.end;
+    }
+
+    /**
+     * Retrieves the value for the end of the ZIP+4 code range.
+     * @return The end value for the ZIP+4 code range
+     */
+    public int getEnd() {
+        return this.end;
+    }
+
+    /**
+     * Return the range as a String in the format of {@code [00000-0000,99999-9999]}.
+     * @return The range in its text format
+     */
+    public String getRangeStr() {
+        return "[" + format(this.start) + "," + format(this.end) + "]";
+    }
+
+    /**
+     * Retrieves the value for the start of the ZIP+4 code range.
+     * @return The start value for the ZIP+4 code range
+     */
+    public int getStart() {
+        return this.start;
+    }
+
+    /**
+     * Formats a ZIP+4 code value as {@code #####-####}.
+     * @param zipPlus4 The ZIP+4 code value
+     * @return The formatted ZIP+4 code
+     */
+    public static String format(int zipPlus4) {
+        return String.format("%05d-%04d", zipPlus4 / PLUS_4_COUNT, zipPlus4 % PLUS_4_COUNT);
+    }
+
+    /**
+     * Parses one side of a range, expanding a 5-digit ZIP code to its first or last ZIP+4 code.
+     */
+    private static int parse(String zipCode, boolean isEnd, String range) {
+        int result;
+        try {
+            if (zipCode.length() == 5) {
+                result = ZipCodeRangeParser.parseZipCode(zipCode) * PLUS_4_COUNT + (isEnd ? PLUS_4_COUNT - 1 : 0);
+            }
+            else {
+                result = ZipCodeRangeParser.parseZipPlus4(zipCode);
+            }
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid ZIP+4 code range: " + range, e);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        String indent = "\n\t";
+        return "ZipPlus4Range {" +
+                indent + "start: " + format(this.start) +
+                indent + "end: " + format(this.end) +
+                "\n}";
+    }
+}
@@ -0,0 +1,162 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects ZIP code ranges from many producer threads at once and consolidates them on demand.
+ *
+ * Each producer thread appends to its own packed {@link ZipCodeRangeList}, held in a ThreadLocal and registered in a
+ * concurrent queue the first time the thread adds a range. A buffer's lock is only ever contended by a drain, so
+ * adding a range is an uncontended lock plus an array write, and throughput scales with the number of producers
+ * instead of serializing on one shared list. A buffer that grows large is consolidated in place by its own thread,
+ * which keeps memory bounded when the same ranges arrive repeatedly.
+ *
+ * {@link #drainAndConsolidate()} swaps every registered buffer for an empty one and merges what it took into one
+ * consolidated list outside the buffers' locks. A range added while a drain is in progress is included in either that
+ * drain or the next one, never lost. A buffer is unregistered by a drain that finds its thread already terminated
+ * before taking its ranges, so a thread's last range is always taken first.
+ */
+public final class ConcurrentZipCodeRangeAccumulator {
+    private static final int COMPACT_THRESHOLD = 64 * 1024;
+
+    private final Queue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Buffer> localBuffer = ThreadLocal.withInitial(this::register);
+
+    /**
+     * Creates an empty accumulator.
+     */
+    public ConcurrentZipCodeRangeAccumulator() {
+        // empty
+    }
+
+    /**
+     * Adds a range from the calling thread.
+     * @param start The starting ZIP code
+     * @param end The ending ZIP code
+     * @throws IllegalArgumentException when the ZIP code value is not within the supported range
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public void add(int start, int end) {
+        Buffer buffer = this.localBuffer.get();
+        synchronized (buffer) {
+            buffer.ranges.add(start, end);
+            buffer.compactIfLarge();
+        }
+    }
+
+    /**
+     * Adds a range from the calling thread.
+     * @param range The range to be added
+     */
+    public void add(ZipCodeRange range) {
+        Buffer buffer = this.localBuffer.get();
+        synchronized (buffer) {
+            buffer.ranges.add(range);
+            buffer.compactIfLarge();
+        }
+    }
+
+    /**
+     * Adds a batch of ranges from the calling thread, taking the buffer's lock only once.
+     * @param ranges The ranges to be added; null is treated as an empty list
+     */
+    public void addAll(List<ZipCodeRange> ranges) {
+        if (ranges != null && !ranges.isEmpty()) {
+            Buffer buffer = this.localBuffer.get();
+            synchronized (buffer) {
+                for (ZipCodeRange range : ranges) {
+                    buffer.ranges.add(range);
+                }
+                buffer.compactIfLarge();
+            }
+        }
+    }
+
+    /**
+     * Removes every buffered range and returns them consolidated.
+     * @return The consolidated ranges added since the previous drain
+     */
+    public ZipCodeRangeList drainAndConsolidate() {
+        ZipCodeRangeList result = new ZipCodeRangeList();
+        for (Iterator<Buffer> it = this.buffers.iterator(); it.hasNext(); ) {
+            Buffer buffer = it.next();
+            // checked before the swap: everything a terminated thread added happens-before isAlive() returns false,
+            // so the swap below takes its last range, whereas a thread that was still alive may add more afterwards
+            boolean dead = !buffer.owner.isAlive();
+            ZipCodeRangeList drained;
+            synchronized (buffer) {
+                drained = buffer.ranges;
+                buffer.ranges = new ZipCodeRangeList();
+                buffer.compactedSize = 0;
+            }
+            if (dead) {
+                it.remove();
+            }
+            // merge outside the lock, so the producer is only blocked for the swap
+            result.addAll(drained);
+        }
+        return result.consolidate();
+    }
+
+    /**
+     * Retrieves the number of ranges currently buffered, which may include ranges already consolidated together and
+     * changes while producers are running.
+     * @return The approximate number of buffered ranges
+     */
+    public int getPendingCount() {
+        int result = 0;
+        for (Buffer buffer : this.buffers) {
+            synchronized (buffer) {
+                result += buffer.ranges.size();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the number of per-thread buffers currently registered.
+     * @return The number of threads that have added ranges, less those unregistered by a drain after terminating
+     */
+    public int getBufferCount() {
+        return this.buffers.size();
+    }
+
+    /**
+     * Creates and registers the buffer for the calling thread.
+     */
+    private Buffer register() {
+        Buffer result = new Buffer(Thread.currentThread());
+        this.buffers.add(result);
+        return result;
+    }
+
+    /**
+     * The buffer of a single producer thread, guarded by its own monitor.
+     */
+    private static final class Buffer {
+        private final Thread owner;
+        private ZipCodeRangeList ranges = new ZipCodeRangeList();
+        private int compactedSize;
+
+        private Buffer(Thread owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * Consolidates the buffer in place once it has grown well past its last consolidated size.
+         */
+        private void compactIfLarge() {
+            if (this.ranges.size() >= Math.max(COMPACT_THRESHOLD, this.compactedSize * 2)) {
+                this.compactedSize = this.ranges.consolidate().size();
+            }
+        }
+    }
+}
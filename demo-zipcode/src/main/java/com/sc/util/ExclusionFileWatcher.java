@@ -0,0 +1,187 @@
+package com.sc.util;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches an external exclusion file and publishes its ranges to an {@link ExclusionRegistry} whenever it changes.
+ *
+ * Bursts of write events (an editor saving in several steps, a copy in progress) are debounced: the file is only
+ * reloaded once no further changes have been seen for the debounce interval. Replacing the file with an atomic rename
+ * is also detected. Reloads are logged through java.util.logging; if a reload fails, the error is logged as a warning
+ * and the previous snapshot stays in place. {@link #getFailedReloadCount()} counts such failures.
+ */
+public class ExclusionFileWatcher implements AutoCloseable {
+    /**
+     * The default debounce interval, in milliseconds.
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 250;
+
+    private static final Logger LOGGER = Logger.getLogger(ExclusionFileWatcher.class.getName());
+
+    private final Path file;
+    private final ExclusionRegistry registry;
+    private final ZipCodeRangeFileLoader loader;
+    private final long debounceMillis;
+    private final WatchService watchService;
+    private final Thread thread;
+    private final AtomicLong failedReloadCount = new AtomicLong();
+
+    /**
+     * Creates a watcher with the default loader and debounce interval.
+     * @param file The exclusion file to be watched
+     * @param registry The registry to which each reload is published
+     * @throws IOException when the file's directory cannot be watched
+     */
+    public ExclusionFileWatcher(Path file, ExclusionRegistry registry) throws IOException {
+        this(file, registry, new ZipCodeRangeFileLoader(), DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Creates a watcher.
+     * @param file The exclusion file to be watched
+     * @param registry The registry to which each reload is published
+     * @param loader The loader used to read the file
+     * @param debounceMillis The time without further changes to wait before reloading
+     * @throws IOException when the file's directory cannot be watched
+     */
+    public ExclusionFileWatcher(Path file, ExclusionRegistry registry, ZipCodeRangeFileLoader loader,
+                                long debounceMillis) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.registry = registry;
+        this.loader = loader;
+        this.debounceMillis = debounceMillis;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            this.file.getParent().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        catch (IOException | RuntimeException e) {
+            // the watcher is never returned, so nothing else would close the service
+            try {
+                this.watchService.close();
+            }
+            catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        this.thread = new Thread(this::watch, "zipcode-exclusion-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Loads the file once and then starts watching it for changes on a background thread.
+     * @return The snapshot published by the initial load
+     * @throws IOException when the file cannot be read
+     * @throws IllegalArgumentException when a line is not a valid ZIP code range
+     */
+    public ExclusionRegistry.Snapshot start() throws IOException {
+        ExclusionRegistry.Snapshot snapshot = reload();
+        this.thread.start();
+        return snapshot;
+    }
+
+    /**
+     * Retrieves the number of reloads triggered by a change that failed, leaving the previous snapshot in place.
+     * @return The failed reload count
+     */
+    public long getFailedReloadCount() {
+        return this.failedReloadCount.get();
+    }
+
+    /**
+     * Stops watching the file.
+     * @throws IOException when the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+    }
+
+    /**
+     * Loads the file, publishes it, and logs how long the rebuild took.
+     */
+    private ExclusionRegistry.Snapshot reload() throws IOException {
+        long startNanos = System.nanoTime();
+        ZipCodeRangeFileLoader.Result result = this.loader.load(this.file);
+        ExclusionRegistry.Snapshot snapshot = this.registry.publish(result.getRanges());
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.info(String.format("Reloaded %s: %,d ranges (%,d consolidated), version %d in %.1f ms",
+                this.file, result.getLineCount(), snapshot.getRangeCount(), snapshot.getVersion(),
+                (System.nanoTime() - startNanos) / 1e6));
+        }
+        return snapshot;
+    }
+
+    /**
+     * The watch loop: waits for a change to the file, waits for the changes to settle, then reloads.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                if (awaitChange(0)) {
+                    // each change to the file restarts the quiet period; changes to other files do not
+                    while (awaitChange(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.debounceMillis))) {
+                        // keep waiting until the burst of changes is over
+                    }
+                    try {
+                        reload();
+                    }
+                    catch (IOException | RuntimeException e) {
+                        this.failedReloadCount.incrementAndGet();
+                        LOGGER.log(Level.WARNING, "Failed to reload " + this.file + ": " + e.getMessage(), e);
+                    }
+                }
+            }
+        }
+        catch (ClosedWatchServiceException e) {
+            // the watcher has been closed
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for an event on the watched file, ignoring events for other files in the same directory.
+     * @param deadlineNanos The {@link System#nanoTime()} at which to give up, or 0 to wait indefinitely
+     * @return true if the watched file changed; false if the deadline passed first
+     */
+    private boolean awaitChange(long deadlineNanos) throws InterruptedException {
+        boolean changed = false;
+        while (!changed) {
+            WatchKey key;
+            if (deadlineNanos == 0) {
+                key = this.watchService.take();
+            }
+            else {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    break;
+                }
+                key = this.watchService.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            }
+            if (key != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW ||
+                            this.file.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,193 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Holds the current set of exclusion ranges and allows it to be replaced while lookups are in progress.
+ *
+ * Each rebuild consolidates the new ranges into a private, immutable {@link Snapshot} and publishes it with a single
+ * atomic reference swap. Readers never block and always see either the previous or the new snapshot in full, never a
+ * half-built one. Rebuilds requested through {@link #rebuildAsync(Supplier)} run one at a time on a background thread.
+ */
+public class ExclusionRegistry implements AutoCloseable {
+    private final AtomicReference<Snapshot> current;
+    private final ExecutorService executor;
+    private final Object writeLock = new Object();
+    private final ZipCodeMetricsSink metricsSink;
+    private long lastVersion;
+
+    /**
+     * Creates a registry holding an empty snapshot (version 0).
+     */
+    public ExclusionRegistry() {
+        this(ZipCodeMetricsSink.NO_OP);
+    }
+
+    /**
+     * Creates a registry holding an empty snapshot (version 0) that reports its lookups, consolidations and index
+     * sizes to the specified sink.
+     * @param metricsSink The sink to report to; null is treated as {@link ZipCodeMetricsSink#NO_OP}
+     */
+    public ExclusionRegistry(ZipCodeMetricsSink metricsSink) {
+        this.metricsSink = metricsSink == null ? ZipCodeMetricsSink.NO_OP : metricsSink;
+        this.current = new AtomicReference<>(new Snapshot(new ZipCodeRangeList(0), 0, Instant.now()));
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "zipcode-exclusion-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Retrieves the most recently published snapshot.
+     * @return The current snapshot
+     */
+    public Snapshot getSnapshot() {
+        return this.current.get();
+    }
+
+    /**
+     * Checks if the specified ZIP code is excluded by the current snapshot.
+     * @param zipCode The ZIP code to check
+     * @return true if the specified ZIP code is contained by the exclusion ranges; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public boolean isExcluded(int zipCode) {
+        boolean result;
+        if (this.metricsSink == ZipCodeMetricsSink.NO_OP) {
+            result = this.current.get().isExcluded(zipCode);
+        }
+        else {
+            boolean timed = ZipCodeMetricsSink.sampleLatency();
+            long startNanos = timed ? System.nanoTime() : 0;
+            result = this.current.get().isExcluded(zipCode);
+            this.metricsSink.recordLookup(result);
+            if (timed) {
+                this.metricsSink.recordLookupLatency(System.nanoTime() - startNanos);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Consolidates the specified ranges on the calling thread and publishes them as the new snapshot.
+     * @param ranges The raw (unconsolidated) ranges; null is treated as an empty list
+     * @return The newly published snapshot
+     */
+    public Snapshot publish(List<ZipCodeRange> ranges) {
+        long startNanos = System.nanoTime();
+        ZipCodeRangeList consolidated = ZipCodeRangeList.fromList(ranges).consolidate();
+        this.metricsSink.recordConsolidation(ranges == null ? 0 : ranges.size(), consolidated.size(),
+            System.nanoTime() - startNanos);
+        Snapshot snapshot;
+        synchronized (this.writeLock) {
+            snapshot = new Snapshot(consolidated, ++this.lastVersion, Instant.now());
+            this.current.set(snapshot);
+        }
+        this.metricsSink.recordIndexSize(snapshot.getIndex().getSizeInBytes());
+        return snapshot;
+    }
+
+    /**
+     * Reads the ranges from the specified source and publishes them as the new snapshot on the background rebuild
+     * thread. The current snapshot remains visible to readers until the rebuild has finished.
+     * @param source A supplier of the raw (unconsolidated) ranges
+     * @return A future that completes with the newly published snapshot, or exceptionally if the source fails
+     */
+    public CompletableFuture<Snapshot> rebuildAsync(Supplier<? extends List<ZipCodeRange>> source) {
+        return CompletableFuture.supplyAsync(() -> publish(source.get()), this.executor);
+    }
+
+    /**
+     * Stops the background rebuild thread. Rebuilds that have already been requested are still completed.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * An immutable, consolidated set of exclusion ranges along with its version and build time.
+     */
+    public static final class Snapshot {
+        private final ZipCodeRangeList ranges;
+        private final ZipCodeExclusionIndex index;
+        private final long version;
+        private final Instant buildTimestamp;
+
+        private Snapshot(ZipCodeRangeList ranges, long version, Instant buildTimestamp) {
+            this.ranges = ranges;
+            this.index = ZipCodeExclusionIndex.fromRangeList(ranges);
+            this.version = version;
+            this.buildTimestamp = buildTimestamp;
+        }
+
+        /**
+         * Retrieves the time at which this snapshot was published.
+         * @return The build timestamp
+         */
+        public Instant getBuildTimestamp() {
+            return this.buildTimestamp;
+        }
+
+        /**
+         * Retrieves the lookup index for this snapshot.
+         * @return The immutable index
+         */
+        public ZipCodeExclusionIndex getIndex() {
+            return this.index;
+        }
+
+        /**
+         * Retrieves the number of consolidated ranges in this snapshot.
+         * @return The number of ranges
+         */
+        public int getRangeCount() {
+            return this.ranges.size();
+        }
+
+        /**
+         * Returns copies of the consolidated ranges, so changes made by the caller do not affect this snapshot.
+         * @return A List of sorted (ascending) ZipCodeRange objects
+         */
+        public List<ZipCodeRange> getRanges() {
+            return this.ranges.toList();
+        }
+
+        /**
+         * Retrieves the version of this snapshot, which increases by one with each publish.
+         * @return The version number
+         */
+        public long getVersion() {
+            return this.version;
+        }
+
+        /**
+         * Checks if the specified ZIP code is excluded by this snapshot.
+         * @param zipCode The ZIP code to check
+         * @return true if the specified ZIP code is contained by the exclusion ranges; otherwise false
+         * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+         */
+        public boolean isExcluded(int zipCode) {
+            return this.index.isExcluded(zipCode);
+        }
+
+        /**
+         * Returns a string representation of this instance.
+         */
+        @Override
+        public String toString() {
+            return "Snapshot {version: " + this.version + ", ranges: " + this.ranges.size() + ", built: " +
+                this.buildTimestamp + "}";
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * Loads ZIP code ranges from a database, consolidating them as the rows arrive.
+ *
+ * The query is run as a forward-only, read-only cursor with the configured fetch size, inside a transaction with
+ * auto-commit disabled, which drivers such as PostgreSQL need in order to stream rows instead of reading the whole
+ * result set into memory. Rows are appended to a packed {@link ZipCodeRangeList} that is consolidated in place
+ * whenever it has grown past twice its last consolidated size, so memory is bounded by the consolidated output (plus
+ * one batch) rather than by the number of rows.
+ *
+ * The query must return either two integer columns (the start and end of each range) or a single text column in the
+ * format accepted by {@link ZipCodeRange#ZipCodeRange(String)}, for example:
+ * <pre>
+ * <code>SELECT start_zip, end_zip FROM excluded_zip_range WHERE carrier = 'A'</code>
+ * </pre>
+ */
+public final class JdbcZipCodeRangeSource {
+    /**
+     * The default number of rows fetched from the database per round trip.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 10000;
+
+    private final DataSource dataSource;
+    private final String query;
+    private final int fetchSize;
+
+    /**
+     * Creates a source that runs the specified query with the default fetch size.
+     * @param dataSource The database to query
+     * @param query The SQL query returning one range per row
+     */
+    public JdbcZipCodeRangeSource(DataSource dataSource, String query) {
+        this(dataSource, query, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Creates a source that runs the specified query.
+     * @param dataSource The database to query
+     * @param query The SQL query returning one range per row
+     * @param fetchSize The number of rows fetched per round trip, and the batch size between consolidations
+     * @throws IllegalArgumentException when the fetch size is not positive
+     */
+    public JdbcZipCodeRangeSource(DataSource dataSource, String query, int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Invalid fetch size: " + fetchSize);
+        }
+        this.dataSource = dataSource;
+        this.query = query;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Runs the query and consolidates every range it returns.
+     * @return The consolidated ranges along with the load statistics
+     * @throws SQLException when the query fails
+     * @throws IllegalArgumentException when a row does not contain a valid ZIP code range
+     */
+    public Result load() throws SQLException {
+        long startNanos = System.nanoTime();
+        ZipCodeRangeList ranges = new ZipCodeRangeList(this.fetchSize);
+        long rowCount;
+        try (Connection connection = this.dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                rowCount = read(connection, ranges);
+                // the transaction only reads, but end it explicitly before auto-commit is restored
+                connection.commit();
+            }
+            catch (SQLException | RuntimeException e) {
+                // leave a pooled connection as it was found, without hiding the original failure
+                try {
+                    connection.rollback();
+                }
+                catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                try {
+                    connection.setAutoCommit(autoCommit);
+                }
+                catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            connection.setAutoCommit(autoCommit);
+        }
+        return new Result(ranges.consolidate().toList(), rowCount, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Runs the query on the connection and appends every range it returns to the list, consolidating in batches.
+     * @return The number of rows read
+     */
+    private long read(Connection connection, ZipCodeRangeList ranges) throws SQLException {
+        long rowCount = 0;
+        try (PreparedStatement statement = connection.prepareStatement(this.query, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(this.fetchSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                boolean text = resultSet.getMetaData().getColumnCount() == 1;
+                int consolidatedSize = 0;
+                while (resultSet.next()) {
+                    rowCount++;
+                    if (text) {
+                        String range = resultSet.getString(1);
+                        if (range == null) {
+                            throw invalidRow(rowCount, null, null);
+                        }
+                        try {
+                            ranges.addPacked(ZipCodeRangeParser.parse(range));
+                        }
+                        catch (IllegalArgumentException e) {
+                            throw invalidRow(rowCount, range, e);
+                        }
+                    }
+                    else {
+                        int start = resultSet.getInt(1);
+                        boolean startNull = resultSet.wasNull();
+                        int end = resultSet.getInt(2);
+                        if (startNull || resultSet.wasNull()) {
+                            throw invalidRow(rowCount, null, null);
+                        }
+                        try {
+                            ranges.add(start, end);
+                        }
+                        catch (IllegalArgumentException e) {
+                            throw invalidRow(rowCount, start + "," + end, e);
+                        }
+                    }
+                    if (ranges.size() - consolidatedSize >= Math.max(consolidatedSize, this.fetchSize)) {
+                        consolidatedSize = ranges.consolidate().size();
+                    }
+                }
+            }
+        }
+        return rowCount;
+    }
+
+    /**
+     * Creates the exception for a row that does not contain a valid range, identifying the row by its position.
+     */
+    private static IllegalArgumentException invalidRow(long row, String value, IllegalArgumentException cause) {
+        return new IllegalArgumentException("Invalid ZIP code range at row " + row + ": " + value, cause);
+    }
+
+    /**
+     * The result of a load: the consolidated ranges along with the load statistics.
+     */
+    public static final class Result {
+        private final List<ZipCodeRange> ranges;
+        private final long rowCount;
+        private final long elapsedNanos;
+
+        private Result(List<ZipCodeRange> ranges, long rowCount, long elapsedNanos) {
+            this.ranges = ranges;
+            this.rowCount = rowCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Retrieves the consolidated ranges.
+         * @return A List of sorted (ascending) ZipCodeRange objects
+         */
+        public List<ZipCodeRange> getRanges() {
+            return this.ranges;
+        }
+
+        /**
+         * Retrieves the number of rows read, before consolidation.
+         * @return The row count
+         */
+        public long getRowCount() {
+            return this.rowCount;
+        }
+
+        /**
+         * Retrieves the time taken to load the ranges.
+         * @return The elapsed time in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        /**
+         * Returns a string representation of this instance.
+         */
+        @Override
+        public String toString() {
+            return String.format("Loaded %,d rows (%,d consolidated ranges) in %.1f ms", this.rowCount,
+                this.ranges.size(), this.elapsedNanos / 1e6);
+        }
+    }
+}
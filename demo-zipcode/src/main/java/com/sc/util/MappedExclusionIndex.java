@@ -0,0 +1,306 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An exclusion index that lives in a memory-mapped file, so that every JVM on a host shares one copy of the bitmap in
+ * the page cache instead of loading and consolidating the exclusion list into its own heap.
+ *
+ * The file holds the same 100,000-bit bitmap as {@link ZipCodeExclusionIndex}, preceded by a small header, and
+ * lookups read the mapped words directly, with no heap copy and no deserialization. Layout (big-endian):
+ * <pre>
+ * <code>magic      4 bytes "ZCMI"</code>
+ * <code>version    4 bytes FORMAT_VERSION</code>
+ * <code>excluded   4 bytes number of excluded ZIP codes</code>
+ * <code>generation 4 bytes one more than the generation of the file it replaced, starting at 1</code>
+ * <code>bitmap     1563 x 8 bytes, bit (z &amp; 63) of word (z &gt;&gt;&gt; 6) set when ZIP code z is excluded</code>
+ * </pre>
+ *
+ * {@link #write(ZipCodeExclusionIndex, Path)} publishes a new version by writing a temporary file in the same
+ * directory, forcing it to disk and renaming it over the old file, so a reader only ever maps a complete file.
+ * Readers check the file's identity (its file key and modification time, plus the generation in its header, which
+ * changes on every write even where file keys are unavailable or timestamps are coarse) at most once per check
+ * interval and remap when it has changed, so lookups read the header at most once per interval. Failed checks are
+ * logged at WARNING and keep the current mapping. A mapping that has been replaced stays valid for lookups already
+ * using it and is released by the garbage collector.
+ */
+public final class MappedExclusionIndex {
+    /**
+     * The current version of the format.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * The default interval between checks for a new version of the file, in milliseconds.
+     */
+    public static final long DEFAULT_CHECK_INTERVAL_MILLIS = 1000;
+
+    private static final int MAGIC = 0x5A434D49;
+    private static final int HEADER_SIZE = 16;
+    private static final int GENERATION_OFFSET = 12;
+    private static final int WORD_COUNT = (ZipCodeExclusionIndex.ZIP_CODE_COUNT + 63) >>> 6;
+    private static final int FILE_SIZE = HEADER_SIZE + WORD_COUNT * 8;
+
+    private static final Logger LOGGER = Logger.getLogger(MappedExclusionIndex.class.getName());
+
+    private final Path file;
+    private final long checkIntervalNanos;
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile Mapping mapping;
+    private volatile long nextCheckNanos;
+
+    /**
+     * Maps an index file, checking for a new version once a second.
+     * @param file The index file, as written by {@link #write(ZipCodeExclusionIndex, Path)}
+     * @throws IOException when the file cannot be mapped or is not a valid index file
+     */
+    public MappedExclusionIndex(Path file) throws IOException {
+        this(file, DEFAULT_CHECK_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Maps an index file.
+     * @param file The index file, as written by {@link #write(ZipCodeExclusionIndex, Path)}
+     * @param checkIntervalMillis The minimum time between checks for a new version of the file; 0 checks on every
+     *                            lookup
+     * @throws IOException when the file cannot be mapped or is not a valid index file
+     * @throws IllegalArgumentException when the check interval is negative
+     */
+    public MappedExclusionIndex(Path file, long checkIntervalMillis) throws IOException {
+        if (checkIntervalMillis < 0) {
+            throw new IllegalArgumentException("Invalid check interval: " + checkIntervalMillis);
+        }
+        this.file = Objects.requireNonNull(file, "file");
+        this.checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalMillis);
+        this.mapping = map(file, Files.readAttributes(file, BasicFileAttributes.class));
+        this.nextCheckNanos = System.nanoTime() + this.checkIntervalNanos;
+    }
+
+    /**
+     * Writes an index file for the specified ranges, atomically replacing any existing file.
+     * @param ranges The ranges to be excluded; may be unsorted or overlapping, and null is treated as an empty list
+     * @param file The index file
+     * @throws IOException when the file cannot be written or renamed
+     */
+    public static void write(List<ZipCodeRange> ranges, Path file) throws IOException {
+        write(new ZipCodeExclusionIndex(ranges), file);
+    }
+
+    /**
+     * Writes an index file for the specified index, atomically replacing any existing file.
+     * @param index The index to be written
+     * @param file The index file
+     * @throws IOException when the file cannot be written or renamed
+     */
+    public static void write(ZipCodeExclusionIndex index, Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        int generation = Files.exists(absolute) ? Math.max(readGeneration(absolute), 0) + 1 : 1;
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_SIZE);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(index.getExcludedCount()).putInt(generation);
+        for (long word : index.getWords()) {
+            buffer.putLong(word);
+        }
+        buffer.flip();
+
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Retrieves the total number of individual ZIP codes excluded by the currently mapped version.
+     * @return The number of excluded ZIP codes
+     */
+    public int getExcludedCount() {
+        return current().excludedCount;
+    }
+
+    /**
+     * Retrieves the generation of the currently mapped version, which each write increments.
+     * @return The generation, starting at 1
+     */
+    public int getGeneration() {
+        return current().generation;
+    }
+
+    /**
+     * Retrieves the mapped file.
+     * @return The path of the index file
+     */
+    public Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * Checks if the specified ZIP code is excluded by the currently mapped version.
+     * @param zipCode The ZIP code to check
+     * @return true if the specified ZIP code is excluded; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public boolean isExcluded(int zipCode) {
+        if (zipCode < 0 || zipCode > 99999) {
+            throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+        }
+        long word = current().buffer.getLong(HEADER_SIZE + (zipCode >>> 6) * 8);
+        return (word & (1L << zipCode)) != 0;
+    }
+
+    /**
+     * Checks if the specified ZIP code is excluded by the currently mapped version.
+     * @param zipCode The 5-digit ZIP code to check
+     * @return true if the specified ZIP code is excluded; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not exactly 5 digits
+     */
+    public boolean isExcluded(String zipCode) {
+        return isExcluded(ZipCodeRangeParser.parseZipCode(zipCode));
+    }
+
+    /**
+     * Remaps the file now if it has been replaced since it was last mapped.
+     * @return true if a new version was mapped; otherwise false
+     * @throws IOException when the file cannot be mapped or is not a valid index file, in which case the previous
+     *                     version stays mapped
+     */
+    public synchronized boolean refresh() throws IOException {
+        boolean result = false;
+        this.nextCheckNanos = System.nanoTime() + this.checkIntervalNanos;
+        BasicFileAttributes attributes = Files.readAttributes(this.file, BasicFileAttributes.class);
+        if (!this.mapping.isSameFile(attributes, readGeneration(this.file))) {
+            this.mapping = map(this.file, attributes);
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        Mapping mapping = this.mapping;
+        return "MappedExclusionIndex {file: " + this.file + ", excluded: " + mapping.excludedCount + ", generation: " +
+            mapping.generation + "}";
+    }
+
+    /**
+     * Returns the current mapping, first remapping the file if the check interval has elapsed and it has changed.
+     * Only one thread checks at a time; lookups racing with it use the current mapping rather than queueing to repeat
+     * the same file reads. Failures are logged and leave the current mapping in place, so that lookups never throw
+     * I/O errors.
+     */
+    private Mapping current() {
+        if (System.nanoTime() - this.nextCheckNanos >= 0 && this.checking.compareAndSet(false, true)) {
+            try {
+                // another thread may have finished a check between the test above and taking the flag
+                if (System.nanoTime() - this.nextCheckNanos >= 0) {
+                    refresh();
+                }
+            }
+            catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to remap " + this.file + ": " + e.getMessage(), e);
+            }
+            finally {
+                this.checking.set(false);
+            }
+        }
+        return this.mapping;
+    }
+
+    /**
+     * Maps and validates the file described by the specified attributes.
+     */
+    private static Mapping map(Path file, BasicFileAttributes attributes) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != FILE_SIZE) {
+                throw new IOException("Invalid exclusion index size: " + channel.size() + " bytes");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a ZIP code exclusion index");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported exclusion index version: " + buffer.getInt(4));
+        }
+        int excludedCount = buffer.getInt(8);
+        int cardinality = 0;
+        for (int i = 0; i < WORD_COUNT; i++) {
+            cardinality += Long.bitCount(buffer.getLong(HEADER_SIZE + i * 8));
+        }
+        if (cardinality != excludedCount) {
+            throw new IOException("Exclusion index count mismatch: expected " + excludedCount + ", found " +
+                cardinality);
+        }
+        return new Mapping(buffer, excludedCount, buffer.getInt(GENERATION_OFFSET), attributes);
+    }
+
+    /**
+     * Reads the generation from the header of a file, or returns -1 if the file is too short or not an index file.
+     */
+    private static int readGeneration(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read = 0;
+            while (header.hasRemaining() && read >= 0) {
+                read = channel.read(header, header.position());
+            }
+        }
+        return header.hasRemaining() || header.getInt(0) != MAGIC ? -1 : header.getInt(GENERATION_OFFSET);
+    }
+
+    /**
+     * A mapped version of the file and the attributes that identify it.
+     */
+    private static final class Mapping {
+        private final MappedByteBuffer buffer;
+        private final int excludedCount;
+        private final int generation;
+        private final Object fileKey;
+        private final FileTime lastModified;
+
+        private Mapping(MappedByteBuffer buffer, int excludedCount, int generation, BasicFileAttributes attributes) {
+            this.buffer = buffer;
+            this.excludedCount = excludedCount;
+            this.generation = generation;
+            this.fileKey = attributes.fileKey();
+            this.lastModified = attributes.lastModifiedTime();
+        }
+
+        /**
+         * Checks if the attributes and header generation describe the file that was mapped; a rename over it changes
+         * the file key where there is one, and a write always changes the generation.
+         */
+        private boolean isSameFile(BasicFileAttributes attributes, int generation) {
+            return Objects.equals(this.fileKey, attributes.fileKey()) &&
+                this.lastModified.equals(attributes.lastModifiedTime()) && this.generation == generation;
+        }
+    }
+}
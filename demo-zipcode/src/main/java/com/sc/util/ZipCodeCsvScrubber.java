@@ -0,0 +1,443 @@
+package com.sc.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Splits a CSV file into the rows to keep and the rows to drop, according to whether the ZIP code in a given column is
+ * excluded, using every core of a fork-join pool.
+ *
+ * The file is split into chunks at line boundaries and each chunk is memory-mapped and scrubbed by its own task. A
+ * task locates the ZIP code field by scanning the row's bytes in the mapping (no row object, String or heap copy of
+ * the chunk is created), checks it against the shared, read-only {@link ZipCodeExclusionIndex}, and copies the row
+ * unchanged into the chunk's kept or dropped buffer. If a chunk fails, the chunks still queued are cancelled. The
+ * buffers are written out strictly in chunk order, so both outputs keep the original row order, and at most a few
+ * chunks per core are in flight at once, so memory use does not grow with the file size.
+ *
+ * Fields follow RFC 4180: a field may be enclosed in double quotes, in which case it may contain commas and escaped
+ * ({@code ""}) quotes. Quoted fields must not contain line breaks, since chunks are split at every line break. Rows
+ * whose ZIP code is missing or malformed are dropped and counted as invalid, blank lines are skipped, and an optional
+ * header row is copied to both outputs. Rows are otherwise copied byte for byte, including their line endings.
+ */
+public final class ZipCodeCsvScrubber {
+    /**
+     * The default maximum size of a chunk, in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private static final int KEPT = 0;
+    private static final int DROPPED = 1;
+    private static final int INVALID = 2;
+
+    private final ZipCodeExclusionIndex index;
+    private final int column;
+    private final boolean hasHeader;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Creates a scrubber that uses the common fork-join pool and the default chunk size.
+     * @param index The exclusion index to check against
+     * @param column The zero-based index of the column holding the ZIP code
+     * @param hasHeader true if the first row is a header, which is copied to both outputs
+     * @throws IllegalArgumentException when the column is negative
+     */
+    public ZipCodeCsvScrubber(ZipCodeExclusionIndex index, int column, boolean hasHeader) {
+        this(index, column, hasHeader, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a scrubber.
+     * @param index The exclusion index to check against
+     * @param column The zero-based index of the column holding the ZIP code
+     * @param hasHeader true if the first row is a header, which is copied to both outputs
+     * @param pool The fork-join pool used to scrub the chunks
+     * @param chunkSize The target size of each chunk in bytes; chunks are extended to the end of the current row
+     * @throws IllegalArgumentException when the column is negative or the chunk size is not positive
+     */
+    public ZipCodeCsvScrubber(ZipCodeExclusionIndex index, int column, boolean hasHeader, ForkJoinPool pool,
+                              int chunkSize) {
+        if (column < 0) {
+            throw new IllegalArgumentException("Invalid column: " + column);
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        this.index = index;
+        this.column = column;
+        this.hasHeader = hasHeader;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Scrubs a CSV file, replacing the contents of both output files.
+     * @param input The CSV file to be scrubbed
+     * @param kept The file to receive the rows whose ZIP code is not excluded
+     * @param dropped The file to receive the rows whose ZIP code is excluded, missing or malformed
+     * @return The row counts and throughput
+     * @throws IOException when a file cannot be read or written
+     */
+    public Result scrub(Path input, Path kept, Path dropped) throws IOException {
+        long startNanos = System.nanoTime();
+        long[] counts = new long[3];
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel keptOut = openForWrite(kept);
+             FileChannel droppedOut = openForWrite(dropped)) {
+            long size = in.size();
+            long dataStart = 0;
+            if (this.hasHeader) {
+                dataStart = findHeaderEnd(in, size);
+                ByteBuffer header = ByteBuffer.allocate((int) dataStart);
+                // a positional read may return fewer bytes than requested
+                while (header.hasRemaining()) {
+                    if (in.read(header, header.position()) < 0) {
+                        throw new IOException("Unexpected end of file while reading the header of " + input);
+                    }
+                }
+                header.flip();
+                writeFully(header.duplicate(), keptOut);
+                writeFully(header, droppedOut);
+            }
+            long[] boundaries = ZipCodeRangeFileLoader.findChunkBoundaries(in, dataStart, size, this.chunkSize);
+
+            int maxInFlight = this.pool.getParallelism() * 2;
+            Deque<ForkJoinTask<ChunkResult>> inFlight = new ArrayDeque<>();
+            try {
+                for (int i = 0; i < boundaries.length - 1; i++) {
+                    long offset = boundaries[i];
+                    long length = boundaries[i + 1] - offset;
+                    inFlight.addLast(this.pool.submit(() -> scrubChunk(in.map(FileChannel.MapMode.READ_ONLY, offset,
+                        length))));
+                    if (inFlight.size() >= maxInFlight) {
+                        write(await(inFlight.removeFirst()), keptOut, droppedOut, counts);
+                    }
+                }
+                while (!inFlight.isEmpty()) {
+                    write(await(inFlight.removeFirst()), keptOut, droppedOut, counts);
+                }
+            }
+            finally {
+                // after a failure, chunks that have not started yet are never scrubbed
+                for (ForkJoinTask<ChunkResult> task : inFlight) {
+                    task.cancel(false);
+                }
+            }
+            return new Result(counts[KEPT], counts[DROPPED], counts[INVALID], size, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Scrubs every row of a mapped chunk into separate kept and dropped buffers, reading the mapping in place.
+     */
+    private ChunkResult scrubChunk(MappedByteBuffer buffer) {
+        int length = buffer.limit();
+        ChunkResult result = new ChunkResult(length);
+        int rowStart = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || buffer.get(i) == '\n') {
+                int rowEnd = i < length ? i + 1 : i;
+                int contentEnd = i;
+                if (contentEnd > rowStart && buffer.get(contentEnd - 1) == '\r') {
+                    contentEnd--;
+                }
+                if (contentEnd > rowStart) {
+                    int zipCode = findZipCode(buffer, rowStart, contentEnd);
+                    if (zipCode < 0) {
+                        result.counts[INVALID]++;
+                        result.dropped.put(buffer, rowStart, rowEnd);
+                    }
+                    else if (this.index.isExcluded(zipCode)) {
+                        result.counts[DROPPED]++;
+                        result.dropped.put(buffer, rowStart, rowEnd);
+                    }
+                    else {
+                        result.counts[KEPT]++;
+                        result.kept.put(buffer, rowStart, rowEnd);
+                    }
+                }
+                rowStart = i + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Locates the ZIP code column of a row, honouring quoted fields, and parses it.
+     * @return The ZIP code, or -1 if the column is missing or malformed
+     */
+    private int findZipCode(ByteBuffer buffer, int from, int to) {
+        int pos = from;
+        for (int field = 0; field < this.column; field++) {
+            pos = skipField(buffer, pos, to);
+            if (pos >= to) {
+                return -1;
+            }
+            // skip the comma
+            pos++;
+        }
+        int fieldEnd = skipField(buffer, pos, to);
+        while (pos < fieldEnd && buffer.get(pos) == ' ') {
+            pos++;
+        }
+        int result;
+        if (pos < fieldEnd && buffer.get(pos) == '"') {
+            // a ZIP code never contains quotes, so the closing quote is the next one
+            int close = pos + 1;
+            while (close < fieldEnd && buffer.get(close) != '"') {
+                close++;
+            }
+            boolean trailingSpaceOnly = true;
+            for (int i = close + 1; i < fieldEnd && trailingSpaceOnly; i++) {
+                trailingSpaceOnly = buffer.get(i) == ' ';
+            }
+            result = close < fieldEnd && trailingSpaceOnly ?
+                ZipCodeRangeParser.parseZipCodeField(buffer, pos + 1, close) : -1;
+        }
+        else {
+            result = ZipCodeRangeParser.parseZipCodeField(buffer, pos, fieldEnd);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the comma (or {@code to}) that ends the field starting at {@code pos}.
+     */
+    private static int skipField(ByteBuffer buffer, int pos, int to) {
+        boolean quoted = false;
+        while (pos < to) {
+            byte b = buffer.get(pos);
+            if (b == '"') {
+                // an escaped quote ("") toggles twice, leaving the state unchanged
+                quoted = !quoted;
+            }
+            else if (b == ',' && !quoted) {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the offset just after the first line break, or the file size if there is none.
+     */
+    private static long findHeaderEnd(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = 0;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Waits for a chunk, rethrowing its failure as the I/O or runtime exception that caused it.
+     */
+    private static ChunkResult await(ForkJoinTask<ChunkResult> task) throws IOException {
+        try {
+            return task.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while scrubbing", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Writes a chunk's kept and dropped rows to their outputs and adds its row counts to the totals.
+     */
+    private static void write(ChunkResult chunk, FileChannel kept, FileChannel dropped, long[] counts)
+            throws IOException {
+        writeFully(chunk.kept.toByteBuffer(), kept);
+        writeFully(chunk.dropped.toByteBuffer(), dropped);
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += chunk.counts[i];
+        }
+    }
+
+    /**
+     * Writes every remaining byte of the buffer, since a single write may be partial.
+     */
+    private static void writeFully(ByteBuffer buffer, FileChannel out) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Opens an output file for writing, creating it or discarding its previous contents.
+     */
+    private static FileChannel openForWrite(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    }
+
+    /**
+     * A growable byte array.
+     */
+    private static final class Bytes {
+        private byte[] data;
+        private int size;
+
+        private Bytes(int initialCapacity) {
+            this.data = new byte[Math.max(initialCapacity, 16)];
+        }
+
+        /**
+         * Appends the bytes of a buffer from {@code from} (inclusive) to {@code to} (exclusive).
+         */
+        private void put(ByteBuffer buffer, int from, int to) {
+            int length = to - from;
+            if (this.size + length > this.data.length) {
+                this.data = Arrays.copyOf(this.data, Math.max(this.size + length, this.data.length * 2));
+            }
+            ByteBuffer row = buffer.duplicate();
+            row.limit(to);
+            row.position(from);
+            row.get(this.data, this.size, length);
+            this.size += length;
+        }
+
+        /**
+         * Returns a buffer wrapping the bytes appended so far, without copying them.
+         */
+        private ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(this.data, 0, this.size);
+        }
+    }
+
+    /**
+     * The kept and dropped rows of a single chunk, in their original order.
+     */
+    private static final class ChunkResult {
+        private final Bytes kept;
+        private final Bytes dropped;
+        private final long[] counts = new long[3];
+
+        private ChunkResult(int chunkLength) {
+            // most rows are usually kept
+            this.kept = new Bytes(chunkLength);
+            this.dropped = new Bytes(chunkLength / 16);
+        }
+    }
+
+    /**
+     * The row counts and throughput of a single {@link #scrub(Path, Path, Path)} call.
+     */
+    public static final class Result {
+        private final long keptCount;
+        private final long excludedCount;
+        private final long invalidCount;
+        private final long byteCount;
+        private final long elapsedNanos;
+
+        private Result(long keptCount, long excludedCount, long invalidCount, long byteCount, long elapsedNanos) {
+            this.keptCount = keptCount;
+            this.excludedCount = excludedCount;
+            this.invalidCount = invalidCount;
+            this.byteCount = byteCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Retrieves the size of the input file.
+         * @return The number of bytes read
+         */
+        public long getByteCount() {
+            return this.byteCount;
+        }
+
+        /**
+         * Retrieves the number of rows dropped because their ZIP code is excluded.
+         * @return The excluded row count
+         */
+        public long getExcludedCount() {
+            return this.excludedCount;
+        }
+
+        /**
+         * Retrieves the time taken to scrub the file.
+         * @return The elapsed time in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        /**
+         * Retrieves the number of rows dropped because their ZIP code is missing or malformed.
+         * @return The invalid row count
+         */
+        public long getInvalidCount() {
+            return this.invalidCount;
+        }
+
+        /**
+         * Retrieves the number of rows kept.
+         * @return The kept row count
+         */
+        public long getKeptCount() {
+            return this.keptCount;
+        }
+
+        /**
+         * Retrieves the total number of (non-blank, non-header) rows read.
+         * @return The row count
+         */
+        public long getRowCount() {
+            return this.keptCount + this.excludedCount + this.invalidCount;
+        }
+
+        /**
+         * Retrieves the scrubbing throughput.
+         * @return The number of rows scrubbed per second
+         */
+        public double getRowsPerSecond() {
+            return getRowCount() / (Math.max(this.elapsedNanos, 1) / 1e9);
+        }
+
+        /**
+         * Returns a string representation of this instance.
+         */
+        @Override
+        public String toString() {
+            return String.format("Scrubbed %,d rows (%,d kept, %,d excluded, %,d invalid) from %,d bytes in %.1f ms " +
+                "(%,.0f rows/s)", getRowCount(), this.keptCount, this.excludedCount, this.invalidCount,
+                this.byteCount, this.elapsedNanos / 1e6, getRowsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A bitmap of every excluded ZIP code, built once from a list of ZipCodeRange objects (typically the output of
+ * {@link ZipCodeUtils#consolidate(List)}).
+ *
+ * The ZIP code space 0-99999 fits in 100,000 bits (~12.5 KB), so a lookup is a single bit test with no allocation or
+ * boxing. Instances are immutable once constructed and may be shared read-only across threads.
+ */
+public final class ZipCodeExclusionIndex {
+    /**
+     * The number of distinct ZIP code values (0-99999).
+     */
+    public static final int ZIP_CODE_COUNT = 100000;
+
+    private static final int WORD_COUNT = (ZIP_CODE_COUNT + 63) >>> 6;
+
+    /*
+     * The number of lookups handled by each task of a parallel batch.
+     */
+    private static final int PARALLEL_BATCH_SIZE = 1 << 16;
+
+    private final long[] words;
+    private final int excludedCount;
+
+    /**
+     * Builds the index from the specified ranges.
+     * @param ranges The List of ZipCodeRange objects to be excluded; may be unsorted or overlapping, and null is
+     *               treated as an empty list
+     */
+    public ZipCodeExclusionIndex(List<ZipCodeRange> ranges) {
+        this.words = new long[WORD_COUNT];
+        if (ranges != null) {
+            for (ZipCodeRange range : ranges) {
+                setRange(this.words, range.getStart(), range.getEnd());
+            }
+        }
+        this.excludedCount = cardinality(this.words);
+    }
+
+    /*
+     * Wraps an already populated bitmap.
+     */
+    private ZipCodeExclusionIndex(long[] words) {
+        this.words = words;
+        this.excludedCount = cardinality(words);
+    }
+
+    /**
+     * Builds the index from the specified packed ranges.
+     * @param ranges The ranges to be excluded; may be unsorted or overlapping
+     * @return The newly built index
+     */
+    public static ZipCodeExclusionIndex fromRangeList(ZipCodeRangeList ranges) {
+        long[] words = new long[WORD_COUNT];
+        ranges.forEach((start, end) -> setRange(words, start, end));
+        return new ZipCodeExclusionIndex(words);
+    }
+
+    /**
+     * Checks if the specified ZIP code is excluded by this index.
+     * @param zipCode The ZIP code to check
+     * @return true if the specified ZIP code is contained by the exclusion ranges; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public boolean isExcluded(int zipCode) {
+        if (zipCode < 0 || zipCode > 99999) {
+            throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+        }
+        return (this.words[zipCode >>> 6] & (1L << zipCode)) != 0;
+    }
+
+    /**
+     * Checks each of the specified ZIP codes against this index.
+     * @param zipCodes The ZIP codes to check
+     * @return A boolean[] where each element is true if the ZIP code at the same position is excluded
+     * @throws IllegalArgumentException when any ZIP code is not within 0-99999
+     */
+    public boolean[] isExcludedBatch(int[] zipCodes) {
+        return isExcludedBatch(zipCodes, false);
+    }
+
+    /**
+     * Checks each of the specified ZIP codes against this index, optionally splitting very large batches across the
+     * common fork-join pool.
+     * @param zipCodes The ZIP codes to check
+     * @param parallel true to check the batch in parallel
+     * @return A boolean[] where each element is true if the ZIP code at the same position is excluded
+     * @throws IllegalArgumentException when any ZIP code is not within 0-99999
+     */
+    public boolean[] isExcludedBatch(int[] zipCodes, boolean parallel) {
+        validate(zipCodes);
+        boolean[] result = new boolean[zipCodes.length];
+        if (parallel && zipCodes.length > PARALLEL_BATCH_SIZE) {
+            int batches = (zipCodes.length + PARALLEL_BATCH_SIZE - 1) / PARALLEL_BATCH_SIZE;
+            IntStream.range(0, batches).parallel().forEach(batch -> {
+                int from = batch * PARALLEL_BATCH_SIZE;
+                lookup(zipCodes, result, from, Math.min(from + PARALLEL_BATCH_SIZE, zipCodes.length));
+            });
+        }
+        else {
+            lookup(zipCodes, result, 0, zipCodes.length);
+        }
+        return result;
+    }
+
+    /**
+     * Checks each of the ZIP codes in the specified stream against this index.
+     * @param zipCodes The ZIP codes to check; parallel streams are checked in parallel
+     * @return A BitSet where bit {@code i} is set if the i-th ZIP code (in encounter order) is excluded
+     * @throws IllegalArgumentException when any ZIP code is not within 0-99999
+     */
+    public BitSet isExcludedBatch(IntStream zipCodes) {
+        // each part of a parallel stream fills its own BitSet, and parts are joined in encounter order
+        return zipCodes.collect(BatchBits::new, (bits, zipCode) -> bits.add(isExcluded(zipCode)), BatchBits::append)
+            .bits;
+    }
+
+    /**
+     * Checks each of the specified 5-digit ZIP code strings against this index.
+     * @param zipCodes The ZIP codes to check; null elements are treated as not excluded
+     * @return A boolean[] where each element is true if the ZIP code at the same position is excluded
+     * @throws IllegalArgumentException when any non-null ZIP code is not exactly 5 digits
+     */
+    public boolean[] isExcludedBatch(String[] zipCodes) {
+        boolean[] result = new boolean[zipCodes.length];
+        for (int i = 0; i < zipCodes.length; i++) {
+            if (zipCodes[i] != null) {
+                int zipCode = ZipCodeRangeParser.parseZipCode(zipCodes[i]);
+                result[i] = (this.words[zipCode >>> 6] & (1L << zipCode)) != 0;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the total number of individual ZIP codes excluded by this index.
+     * @return The number of excluded ZIP codes
+     */
+    public int getExcludedCount() {
+        return this.excludedCount;
+    }
+
+    /**
+     * Retrieves the memory used by the index data, excluding object headers.
+     * @return The size of the bitmap in bytes
+     */
+    public long getSizeInBytes() {
+        return this.words.length * 8L;
+    }
+
+    /**
+     * Returns the bitmap itself, for serializers in this package; it must not be modified.
+     */
+    long[] getWords() {
+        return this.words;
+    }
+
+    /**
+     * Checks the (already validated) ZIP codes from {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    private void lookup(int[] zipCodes, boolean[] result, int from, int to) {
+        long[] words = this.words;
+        for (int i = from; i < to; i++) {
+            int zipCode = zipCodes[i];
+            result[i] = (words[zipCode >>> 6] & (1L << zipCode)) != 0;
+        }
+    }
+
+    /**
+     * Validates a batch of ZIP codes in a single branch-free pass: any value outside 0-99999 makes either
+     * {@code zipCode} or {@code 99999 - zipCode} negative, setting the sign bit of the accumulated value.
+     */
+    private static void validate(int[] zipCodes) {
+        int invalid = 0;
+        for (int zipCode : zipCodes) {
+            invalid |= zipCode | (99999 - zipCode);
+        }
+        if (invalid < 0) {
+            for (int zipCode : zipCodes) {
+                if (zipCode < 0 || zipCode > 99999) {
+                    throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets every bit from {@code start} to {@code end} (inclusive).
+     */
+    private static void setRange(long[] words, int start, int end) {
+        int startWord = start >>> 6;
+        int endWord = end >>> 6;
+        long startMask = -1L << start;
+        long endMask = -1L >>> (63 - (end & 63));
+        if (startWord == endWord) {
+            words[startWord] |= startMask & endMask;
+        }
+        else {
+            words[startWord] |= startMask;
+            for (int i = startWord + 1; i < endWord; i++) {
+                words[i] = -1L;
+            }
+            words[endWord] |= endMask;
+        }
+    }
+
+    /**
+     * Counts the number of set bits.
+     */
+    private static int cardinality(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * The results of a stream batch so far: a bit per ZIP code checked, in encounter order.
+     */
+    private static final class BatchBits {
+        private final BitSet bits = new BitSet();
+        private int count;
+
+        /**
+         * Appends the result for the next ZIP code in encounter order.
+         */
+        private void add(boolean excluded) {
+            if (excluded) {
+                this.bits.set(this.count);
+            }
+            this.count++;
+        }
+
+        /**
+         * Appends the results of the following part of the stream, visiting only its set bits.
+         */
+        private void append(BatchBits next) {
+            for (int i = next.bits.nextSetBit(0); i >= 0; i = next.bits.nextSetBit(i + 1)) {
+                this.bits.set(this.count + i);
+            }
+            this.count += next.count;
+        }
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        return "ZipCodeExclusionIndex {excluded: " + this.excludedCount + "}";
+    }
+}
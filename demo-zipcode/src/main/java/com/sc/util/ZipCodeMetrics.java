@@ -0,0 +1,208 @@
+package com.sc.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * A metrics sink that keeps lookup and consolidation statistics in memory and exposes them as a JMX MBean.
+ *
+ * Every counter is a striped {@link LongAdder}, so concurrent lookups record without locks or contended atomic
+ * updates: a lookup costs one or two adder increments, and a sampled lookup also finds its power-of-two latency bucket
+ * with a single leading-zero count.
+ *
+ * Typical use:
+ * <pre>
+ * <code>ZipCodeMetrics metrics = new ZipCodeMetrics();</code>
+ * <code>metrics.register("default");</code>
+ * <code>ZipCodeUtils.setMetricsSink(metrics);</code>
+ * </pre>
+ */
+public class ZipCodeMetrics implements ZipCodeMetricsSink, ZipCodeMetricsMBean {
+    /**
+     * The domain and type of the JMX object names used by {@link #register(String)}.
+     */
+    public static final String OBJECT_NAME_PREFIX = "com.sc:type=ZipCodeMetrics,name=";
+
+    private static final int HISTOGRAM_BUCKETS = Long.SIZE;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder[] latencyHistogram = new LongAdder[HISTOGRAM_BUCKETS];
+    private final LongAdder consolidations = new LongAdder();
+    private final LongAdder consolidationNanos = new LongAdder();
+    // {input count, output count, nanos}, replaced as a whole so the three values always belong together
+    private volatile long[] lastConsolidation = new long[3];
+    private volatile long indexSizeBytes;
+
+    /**
+     * Creates an empty set of metrics.
+     */
+    public ZipCodeMetrics() {
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            this.latencyHistogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server.
+     * @param name The value of the {@code name} key of the object name, which must be unique within the JVM
+     * @return The object name under which the metrics were registered
+     * @throws JMException when the name is not valid or is already registered
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName(OBJECT_NAME_PREFIX + name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public void recordLookup(boolean excluded) {
+        this.lookups.increment();
+        if (excluded) {
+            this.hits.increment();
+        }
+    }
+
+    @Override
+    public void recordLookupLatency(long nanos) {
+        this.latencyHistogram[bucketOf(nanos)].increment();
+    }
+
+    @Override
+    public void recordConsolidation(int inputCount, int outputCount, long nanos) {
+        this.consolidations.increment();
+        this.consolidationNanos.add(nanos);
+        this.lastConsolidation = new long[] {inputCount, outputCount, nanos};
+    }
+
+    @Override
+    public void recordIndexSize(long bytes) {
+        this.indexSizeBytes = bytes;
+    }
+
+    @Override
+    public long getLookupCount() {
+        return this.lookups.sum();
+    }
+
+    @Override
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return Math.max(0, this.lookups.sum() - this.hits.sum());
+    }
+
+    @Override
+    public double getHitRatio() {
+        long lookupCount = this.lookups.sum();
+        return lookupCount == 0 ? 0.0 : Math.min(1.0, (double) this.hits.sum() / lookupCount);
+    }
+
+    @Override
+    public long[] getLookupLatencyHistogram() {
+        long[] result = new long[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            result[i] = this.latencyHistogram[i].sum();
+        }
+        return result;
+    }
+
+    @Override
+    public long getLookupLatencyP50Nanos() {
+        return percentile(0.50);
+    }
+
+    @Override
+    public long getLookupLatencyP99Nanos() {
+        return percentile(0.99);
+    }
+
+    @Override
+    public long getConsolidationCount() {
+        return this.consolidations.sum();
+    }
+
+    @Override
+    public long getConsolidationTotalNanos() {
+        return this.consolidationNanos.sum();
+    }
+
+    @Override
+    public long getLastConsolidationNanos() {
+        return this.lastConsolidation[2];
+    }
+
+    @Override
+    public long getLastConsolidationInputCount() {
+        return this.lastConsolidation[0];
+    }
+
+    @Override
+    public long getLastConsolidationOutputCount() {
+        return this.lastConsolidation[1];
+    }
+
+    @Override
+    public long getIndexSizeBytes() {
+        return this.indexSizeBytes;
+    }
+
+    @Override
+    public void reset() {
+        this.lookups.reset();
+        this.hits.reset();
+        for (LongAdder bucket : this.latencyHistogram) {
+            bucket.reset();
+        }
+        this.consolidations.reset();
+        this.consolidationNanos.reset();
+        this.lastConsolidation = new long[3];
+        this.indexSizeBytes = 0;
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        return String.format("ZipCodeMetrics {lookups: %d, hitRatio: %.3f, p50: %d ns, p99: %d ns, " +
+            "consolidations: %d, indexBytes: %d}", getLookupCount(), getHitRatio(), getLookupLatencyP50Nanos(),
+            getLookupLatencyP99Nanos(), getConsolidationCount(), getIndexSizeBytes());
+    }
+
+    /**
+     * Returns the histogram bucket for a latency: floor(log2(nanos)), with 0 and negative values in bucket 0.
+     */
+    private static int bucketOf(long nanos) {
+        return nanos <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * Returns the upper bound of the histogram bucket containing the specified fraction of the lookups.
+     */
+    private long percentile(double fraction) {
+        long[] histogram = getLookupLatencyHistogram();
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        long result = 0;
+        if (total > 0) {
+            long target = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                seen += histogram[i];
+                if (seen >= target) {
+                    result = i == HISTOGRAM_BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package com.sc.util;
+
+/**
+ * The JMX management interface of {@link ZipCodeMetrics}.
+ */
+public interface ZipCodeMetricsMBean {
+    /**
+     * Retrieves the number of lookups recorded.
+     * @return The lookup count
+     */
+    long getLookupCount();
+
+    /**
+     * Retrieves the number of lookups that found the ZIP code excluded.
+     * @return The hit count
+     */
+    long getHitCount();
+
+    /**
+     * Retrieves the number of lookups that found the ZIP code not excluded.
+     * @return The miss count
+     */
+    long getMissCount();
+
+    /**
+     * Retrieves the fraction of lookups that found the ZIP code excluded.
+     * @return The hit ratio from 0.0 to 1.0, or 0.0 when no lookups have been recorded
+     */
+    double getHitRatio();
+
+    /**
+     * Retrieves the lookup latency histogram, in which element {@code i} counts the sampled lookups that took from
+     * 2<sup>i</sup> to 2<sup>i+1</sup>-1 nanoseconds (element 0 also counts lookups that took 0 nanoseconds). Only
+     * about one lookup in {@link ZipCodeMetricsSink#LATENCY_SAMPLE_INTERVAL} is timed.
+     * @return The lookup counts per power-of-two latency bucket
+     */
+    long[] getLookupLatencyHistogram();
+
+    /**
+     * Estimates the median lookup latency from the histogram.
+     * @return The upper bound of the histogram bucket holding the median, in nanoseconds
+     */
+    long getLookupLatencyP50Nanos();
+
+    /**
+     * Estimates the 99th percentile lookup latency from the histogram.
+     * @return The upper bound of the histogram bucket holding the 99th percentile, in nanoseconds
+     */
+    long getLookupLatencyP99Nanos();
+
+    /**
+     * Retrieves the number of consolidations recorded.
+     * @return The consolidation count
+     */
+    long getConsolidationCount();
+
+    /**
+     * Retrieves the total time spent consolidating.
+     * @return The total duration in nanoseconds
+     */
+    long getConsolidationTotalNanos();
+
+    /**
+     * Retrieves the duration of the most recent consolidation.
+     * @return The duration in nanoseconds
+     */
+    long getLastConsolidationNanos();
+
+    /**
+     * Retrieves the number of input ranges of the most recent consolidation.
+     * @return The input range count
+     */
+    long getLastConsolidationInputCount();
+
+    /**
+     * Retrieves the number of output ranges of the most recent consolidation.
+     * @return The output range count
+     */
+    long getLastConsolidationOutputCount();
+
+    /**
+     * Retrieves the memory used by the most recently built lookup index.
+     * @return The approximate size in bytes
+     */
+    long getIndexSizeBytes();
+
+    /**
+     * Clears every counter and the histogram.
+     */
+    void reset();
+}
@@ -0,0 +1,66 @@
+package com.sc.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Receives measurements from the lookup and consolidation paths.
+ *
+ * Implementations are called on the lookup path, so they must be thread-safe and should record without locking. Every
+ * method does nothing by default, so an implementation only needs to override the measurements it is interested in.
+ *
+ * Reading the clock costs far more than a bitmap lookup, so instrumented code counts every lookup but only times a
+ * sample of them, chosen by {@link #sampleLatency()}.
+ */
+public interface ZipCodeMetricsSink {
+    /**
+     * A sink that discards every measurement. Instrumented code skips its timing entirely while this sink is in use.
+     */
+    ZipCodeMetricsSink NO_OP = new ZipCodeMetricsSink() { };
+
+    /**
+     * On average, one lookup in this many is timed.
+     */
+    int LATENCY_SAMPLE_INTERVAL = 1024;
+
+    /**
+     * Decides whether the current lookup should be timed, without any state shared between threads.
+     * @return true for roughly one call in {@link #LATENCY_SAMPLE_INTERVAL}
+     */
+    static boolean sampleLatency() {
+        return (ThreadLocalRandom.current().nextInt() & (LATENCY_SAMPLE_INTERVAL - 1)) == 0;
+    }
+
+    /**
+     * Records a single ZIP code lookup.
+     * @param excluded true if the ZIP code was excluded (a hit); false for a miss
+     */
+    default void recordLookup(boolean excluded) {
+        // no-op
+    }
+
+    /**
+     * Records the duration of a sampled lookup, which has also been passed to {@link #recordLookup(boolean)}.
+     * @param nanos The duration of the lookup in nanoseconds
+     */
+    default void recordLookupLatency(long nanos) {
+        // no-op
+    }
+
+    /**
+     * Records a consolidation of ranges.
+     * @param inputCount The number of ranges before consolidation
+     * @param outputCount The number of ranges after consolidation
+     * @param nanos The duration of the consolidation in nanoseconds
+     */
+    default void recordConsolidation(int inputCount, int outputCount, long nanos) {
+        // no-op
+    }
+
+    /**
+     * Records the memory used by a newly built lookup index.
+     * @param bytes The approximate size of the index data in bytes
+     */
+    default void recordIndexSize(long bytes) {
+        // no-op
+    }
+}
@@ -0,0 +1,231 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An inverted index over up to 64 named exclusion lists, answering "which lists contain this ZIP code" with a single
+ * array read.
+ *
+ * Each ZIP code maps to a {@code long} membership mask in which bit {@code n} is set when the list with id {@code n}
+ * contains it. Adding, replacing or removing a list only rewrites that list's bit: the masks are copied, the list's bit
+ * is cleared and then set from its ranges, and the copy is published in one volatile write. Lookups never block and
+ * always see every list either before or after a change.
+ */
+public final class ZipCodeMultiListIndex {
+    /**
+     * The maximum number of lists the index can hold.
+     */
+    public static final int MAX_LISTS = Long.SIZE;
+
+    private static final int ZIP_CODE_COUNT = 100000;
+
+    private volatile State state = new State(new long[ZIP_CODE_COUNT], new String[MAX_LISTS]);
+
+    /**
+     * Adds a list, or replaces the ranges of an existing list with the same name.
+     * @param name The name of the list
+     * @param ranges The ranges in the list; may be unsorted or overlapping, and null is treated as an empty list
+     * @return The id of the list, which is its bit in the membership masks
+     * @throws NullPointerException when the name is null
+     * @throws IllegalStateException when the index already holds {@link #MAX_LISTS} other lists
+     */
+    public synchronized int putList(String name, List<ZipCodeRange> ranges) {
+        Objects.requireNonNull(name, "name");
+        State current = this.state;
+        int id = current.indexOf(name);
+        if (id < 0) {
+            id = Arrays.asList(current.names).indexOf(null);
+            if (id < 0) {
+                throw new IllegalStateException("Too many exclusion lists, the maximum is " + MAX_LISTS + ": " + name);
+            }
+        }
+        long bit = 1L << id;
+        long[] masks = copyWithout(current.masks, bit);
+        // consolidating first means each ZIP code's mask is written at most once, however much the ranges overlap
+        ZipCodeRangeList.fromList(ranges).consolidate().forEach((start, end) -> {
+            for (int zipCode = start; zipCode <= end; zipCode++) {
+                masks[zipCode] |= bit;
+            }
+        });
+        String[] names = current.names.clone();
+        names[id] = name;
+        this.state = new State(masks, names);
+        return id;
+    }
+
+    /**
+     * Removes a list, freeing its id for reuse.
+     * @param name The name of the list
+     * @return true if the list was removed; false if no list has that name
+     */
+    public synchronized boolean removeList(String name) {
+        boolean result = false;
+        State current = this.state;
+        int id = current.indexOf(name);
+        if (id >= 0) {
+            String[] names = current.names.clone();
+            names[id] = null;
+            this.state = new State(copyWithout(current.masks, 1L << id), names);
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the id of a list.
+     * @param name The name of the list
+     * @return The id of the list, or -1 if no list has that name
+     */
+    public int getListId(String name) {
+        return this.state.indexOf(name);
+    }
+
+    /**
+     * Retrieves the names of the lists held by the index, in id order.
+     * @return A List of list names
+     */
+    public List<String> getListNames() {
+        return toNames(this.state, -1L);
+    }
+
+    /**
+     * Retrieves the membership mask of a ZIP code.
+     * @param zipCode The ZIP code to check
+     * @return A mask in which bit {@code n} is set when the list with id {@code n} contains the ZIP code
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public long getMembership(int zipCode) {
+        if (zipCode < 0 || zipCode >= ZIP_CODE_COUNT) {
+            throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+        }
+        return this.state.masks[zipCode];
+    }
+
+    /**
+     * Retrieves the membership mask of a ZIP code.
+     * @param zipCode The 5-digit ZIP code to check
+     * @return A mask in which bit {@code n} is set when the list with id {@code n} contains the ZIP code
+     * @throws IllegalArgumentException when the ZIP code is not exactly 5 digits
+     */
+    public long getMembership(String zipCode) {
+        return getMembership(ZipCodeRangeParser.parseZipCode(zipCode));
+    }
+
+    /**
+     * Retrieves the names of every list containing a ZIP code.
+     * @param zipCode The ZIP code to check
+     * @return A List of list names, in id order
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public List<String> getMemberLists(int zipCode) {
+        if (zipCode < 0 || zipCode >= ZIP_CODE_COUNT) {
+            throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+        }
+        // read the state once so the mask and the names belong to the same version
+        State current = this.state;
+        return toNames(current, current.masks[zipCode]);
+    }
+
+    /**
+     * Checks if a named list contains a ZIP code.
+     * @param zipCode The ZIP code to check
+     * @param name The name of the list
+     * @return true if the list exists and contains the ZIP code; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public boolean isExcluded(int zipCode, String name) {
+        if (zipCode < 0 || zipCode >= ZIP_CODE_COUNT) {
+            throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+        }
+        State current = this.state;
+        int id = current.indexOf(name);
+        return id >= 0 && (current.masks[zipCode] & (1L << id)) != 0;
+    }
+
+    /**
+     * Checks if a list contains a ZIP code, using the list id returned by {@link #putList(String, List)} or
+     * {@link #getListId(String)} to skip the name lookup.
+     * @param zipCode The ZIP code to check
+     * @param listId The id of the list
+     * @return true if the list with that id contains the ZIP code; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999 or the id is not within 0-63
+     */
+    public boolean isExcluded(int zipCode, int listId) {
+        if (zipCode < 0 || zipCode >= ZIP_CODE_COUNT) {
+            throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+        }
+        if (listId < 0 || listId >= MAX_LISTS) {
+            throw new IllegalArgumentException("Invalid list id: " + listId);
+        }
+        return (this.state.masks[zipCode] & (1L << listId)) != 0;
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        return "ZipCodeMultiListIndex {lists: " + getListNames() + "}";
+    }
+
+    /**
+     * Copies the masks with the specified bit cleared.
+     */
+    private static long[] copyWithout(long[] masks, long bit) {
+        long[] result = new long[masks.length];
+        long keep = ~bit;
+        for (int i = 0; i < masks.length; i++) {
+            result[i] = masks[i] & keep;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the names of the lists whose bits are set in the mask.
+     */
+    private static List<String> toNames(State state, long mask) {
+        List<String> result = new ArrayList<>();
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            String name = state.names[Long.numberOfTrailingZeros(remaining)];
+            if (name != null) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * An immutable version of the index: the masks, the list names they refer to and the id of each name.
+     */
+    private static final class State {
+        private final long[] masks;
+        private final String[] names;
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        private State(long[] masks, String[] names) {
+            this.masks = masks;
+            this.names = names;
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] != null) {
+                    this.ids.put(names[i], i);
+                }
+            }
+        }
+
+        /**
+         * Returns the id of the named list, or -1 if there is no such list or the name is null.
+         */
+        private int indexOf(String name) {
+            Integer id = name == null ? null : this.ids.get(name);
+            return id == null ? -1 : id;
+        }
+    }
+}
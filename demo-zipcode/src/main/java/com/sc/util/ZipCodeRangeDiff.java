@@ -0,0 +1,161 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The changes between two consolidated snapshots of excluded ranges: the ranges that were added and the ranges that
+ * were removed.
+ *
+ * {@link #between(ZipCodeRangeList, ZipCodeRangeList)} computes the changeset in a single linear sweep over both
+ * snapshots, and {@link #apply(ZipCodeRangeList)} turns the old snapshot into the new one, so a changed exclusion list
+ * can be propagated at a cost proportional to the size of the change rather than the size of the list. Both the added
+ * and the removed ranges are consolidated, and they never overlap each other; a received changeset that breaks either
+ * rule is rejected on construction. Instances are immutable.
+ */
+public final class ZipCodeRangeDiff {
+    private static final int ZIP_CODE_COUNT = 100000;
+
+    private final ZipCodeRangeList added;
+    private final ZipCodeRangeList removed;
+
+    /**
+     * Creates a changeset from its ranges, for example after receiving it from another service.
+     * @param added The consolidated ranges that were added; null is treated as an empty list
+     * @param removed The consolidated ranges that were removed; null is treated as an empty list
+     * @throws IllegalArgumentException when either list is not consolidated, or a ZIP code is both added and removed
+     */
+    public ZipCodeRangeDiff(List<ZipCodeRange> added, List<ZipCodeRange> removed) {
+        this(ZipCodeRangeList.fromList(added), ZipCodeRangeList.fromList(removed));
+        ZipCodeRangeOperations.validate(this.added);
+        ZipCodeRangeOperations.validate(this.removed);
+        ZipCodeRangeList overlap = ZipCodeRangeOperations.intersection(this.added, this.removed);
+        if (!overlap.isEmpty()) {
+            throw new IllegalArgumentException("Ranges both added and removed: " + format(overlap));
+        }
+    }
+
+    /*
+     * Wraps already consolidated ranges.
+     */
+    private ZipCodeRangeDiff(ZipCodeRangeList added, ZipCodeRangeList removed) {
+        this.added = added;
+        this.removed = removed;
+    }
+
+    /**
+     * Computes the changes from one snapshot to another.
+     * @param oldRanges The consolidated old snapshot; null is treated as an empty list
+     * @param newRanges The consolidated new snapshot; null is treated as an empty list
+     * @return The changeset
+     * @throws IllegalArgumentException when either list is not consolidated
+     */
+    public static ZipCodeRangeDiff between(List<ZipCodeRange> oldRanges, List<ZipCodeRange> newRanges) {
+        return between(ZipCodeRangeList.fromList(oldRanges), ZipCodeRangeList.fromList(newRanges));
+    }
+
+    /**
+     * Computes the changes from one snapshot to another.
+     * @param oldRanges The consolidated old snapshot
+     * @param newRanges The consolidated new snapshot
+     * @return The changeset
+     * @throws IllegalArgumentException when either list is not consolidated
+     */
+    public static ZipCodeRangeDiff between(ZipCodeRangeList oldRanges, ZipCodeRangeList newRanges) {
+        ZipCodeRangeOperations.validate(oldRanges);
+        ZipCodeRangeOperations.validate(newRanges);
+        ZipCodeRangeList added = new ZipCodeRangeList();
+        ZipCodeRangeList removed = new ZipCodeRangeList();
+        int i = 0;
+        int j = 0;
+        int pos = 0;
+        // sweep the boundaries of both snapshots in order; between two boundaries membership of each is constant
+        while (i < oldRanges.size() || j < newRanges.size()) {
+            boolean inOld = i < oldRanges.size() && oldRanges.getStart(i) <= pos;
+            boolean inNew = j < newRanges.size() && newRanges.getStart(j) <= pos;
+            int oldNext = i >= oldRanges.size() ? ZIP_CODE_COUNT :
+                inOld ? oldRanges.getEnd(i) + 1 : oldRanges.getStart(i);
+            int newNext = j >= newRanges.size() ? ZIP_CODE_COUNT :
+                inNew ? newRanges.getEnd(j) + 1 : newRanges.getStart(j);
+            int next = Math.min(oldNext, newNext);
+            // both inputs are consolidated, so consecutive segments never extend the same output range
+            if (inNew && !inOld) {
+                added.addPacked(ZipCodeUtils.packRange(pos, next - 1));
+            }
+            else if (inOld && !inNew) {
+                removed.addPacked(ZipCodeUtils.packRange(pos, next - 1));
+            }
+            pos = next;
+            if (inOld && pos > oldRanges.getEnd(i)) {
+                i++;
+            }
+            if (inNew && pos > newRanges.getEnd(j)) {
+                j++;
+            }
+        }
+        return new ZipCodeRangeDiff(added, removed);
+    }
+
+    /**
+     * Applies the changes to a snapshot: the removed ranges are subtracted and the added ranges are merged in.
+     * @param ranges The consolidated snapshot, typically the old snapshot this changeset was computed from; null is
+     *               treated as an empty list
+     * @return A consolidated List of ZipCodeRange objects
+     * @throws IllegalArgumentException when the list is not consolidated
+     */
+    public List<ZipCodeRange> apply(List<ZipCodeRange> ranges) {
+        return apply(ZipCodeRangeList.fromList(ranges)).toList();
+    }
+
+    /**
+     * Applies the changes to a snapshot: the removed ranges are subtracted and the added ranges are merged in.
+     * @param ranges The consolidated snapshot, typically the old snapshot this changeset was computed from
+     * @return A consolidated ZipCodeRangeList
+     * @throws IllegalArgumentException when the list is not consolidated
+     */
+    public ZipCodeRangeList apply(ZipCodeRangeList ranges) {
+        return ZipCodeRangeOperations.union(ZipCodeRangeOperations.difference(ranges, this.removed), this.added);
+    }
+
+    /**
+     * Retrieves the ranges that were added.
+     * @return A consolidated List of ZipCodeRange objects
+     */
+    public List<ZipCodeRange> getAdded() {
+        return this.added.toList();
+    }
+
+    /**
+     * Retrieves the ranges that were removed.
+     * @return A consolidated List of ZipCodeRange objects
+     */
+    public List<ZipCodeRange> getRemoved() {
+        return this.removed.toList();
+    }
+
+    /**
+     * Checks if the two snapshots were identical.
+     * @return true if no ranges were added or removed; otherwise false
+     */
+    public boolean isEmpty() {
+        return this.added.isEmpty() && this.removed.isEmpty();
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        return "ZipCodeRangeDiff {added: " + format(this.added) + ", removed: " + format(this.removed) + "}";
+    }
+
+    /**
+     * Formats the ranges as a bracketed, comma-separated list of range strings.
+     */
+    private static String format(ZipCodeRangeList ranges) {
+        return ranges.toList().stream().map(ZipCodeRange::getRangeStr).collect(Collectors.joining(", ", "[", "]"));
+    }
+}
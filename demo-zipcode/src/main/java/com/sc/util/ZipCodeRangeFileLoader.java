@@ -0,0 +1,280 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads ZIP code ranges from a (potentially very large) text file with one range per line.
+ *
+ * The file is split into chunks at line boundaries, each chunk is memory-mapped with {@link FileChannel} and parsed
+ * in place by {@link ZipCodeRangeParser} into a packed {@link ZipCodeRangeList} on a fork-join pool, and the per-chunk
+ * results are merged into one consolidated list. A malformed line is reported with its offset in the file.
+ * Blank lines are skipped and a trailing {@code \r} is ignored, so files with Windows line endings are accepted.
+ */
+public final class ZipCodeRangeFileLoader {
+    /**
+     * The default maximum size of a chunk, in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Creates a loader that uses the common fork-join pool and the default chunk size.
+     */
+    public ZipCodeRangeFileLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a loader with the specified pool and chunk size.
+     * @param pool The fork-join pool used to parse the chunks
+     * @param chunkSize The target size of each chunk in bytes; chunks are extended to the end of the current line
+     * @throws IllegalArgumentException when the chunk size is not positive
+     */
+    public ZipCodeRangeFileLoader(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Loads and consolidates all of the ranges in the specified file.
+     * @param file The file to be loaded
+     * @return The consolidated ranges along with the load statistics
+     * @throws IOException when the file cannot be read
+     * @throws IllegalArgumentException when a line is not a valid ZIP code range
+     */
+    public Result load(Path file) throws IOException {
+        long startNanos = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] boundaries = findChunkBoundaries(channel, 0, size, this.chunkSize);
+            ChunkResult chunk = new ChunkResult(new ZipCodeRangeList(0), 0);
+            if (boundaries.length > 1) {
+                try {
+                    chunk = this.pool.invoke(new ChunkTask(channel, boundaries, 0, boundaries.length - 1));
+                }
+                catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+            return new Result(chunk.ranges.toList(), chunk.lineCount, size, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Splits the file from {@code start} into chunks of roughly {@code chunkSize} bytes, moving each boundary forward
+     * to just after the next line break.
+     * @return The offsets of the chunk boundaries, starting with {@code start} and ending with the file size
+     */
+    static long[] findChunkBoundaries(FileChannel channel, long start, long size, int chunkSize) throws IOException {
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(start);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = start;
+        while (position < size) {
+            long next = Math.min(position + chunkSize, size);
+            boolean found = (next == size);
+            while (!found) {
+                buffer.clear();
+                int read = channel.read(buffer, next);
+                if (read <= 0) {
+                    next = size;
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        next += i + 1;
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    next += read;
+                }
+            }
+            boundaries.add(next);
+            position = next;
+        }
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Parses every line of the mapped chunk into the specified list, reading the mapping in place.
+     * @param offset The offset of the chunk within the file, used to locate a malformed line
+     * @return The number of non-blank lines parsed
+     * @throws IllegalArgumentException when a line is not a valid ZIP code range
+     */
+    private static long parseChunk(MappedByteBuffer buffer, long offset, ZipCodeRangeList ranges) {
+        long lineCount = 0;
+        int lineIndex = 0;
+        int limit = buffer.limit();
+        int lineStart = 0;
+        for (int i = 0; i <= limit; i++) {
+            if (i == limit || buffer.get(i) == '\n') {
+                int lineEnd = i;
+                if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+                if (lineEnd > lineStart) {
+                    try {
+                        ranges.addPacked(ZipCodeRangeParser.parse(buffer, lineStart, lineEnd - lineStart));
+                    }
+                    catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(e.getMessage() + " (line " + (lineIndex + 1) +
+                            " of the chunk at offset " + offset + ", file offset " + (offset + lineStart) + ")", e);
+                    }
+                    lineCount++;
+                }
+                lineIndex++;
+                lineStart = i + 1;
+            }
+        }
+        return lineCount;
+    }
+
+    /**
+     * The consolidated ranges and line count for one or more chunks.
+     */
+    private static final class ChunkResult {
+        private final ZipCodeRangeList ranges;
+        private final long lineCount;
+
+        private ChunkResult(ZipCodeRangeList ranges, long lineCount) {
+            this.ranges = ranges;
+            this.lineCount = lineCount;
+        }
+    }
+
+    /**
+     * Parses the chunks from {@code from} (inclusive) to {@code to} (exclusive), splitting in half until a single
+     * chunk remains.
+     */
+    private static final class ChunkTask extends RecursiveTask<ChunkResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient FileChannel channel;
+        private final long[] boundaries;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(FileChannel channel, long[] boundaries, int from, int to) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            if (this.to - this.from == 1) {
+                ZipCodeRangeList ranges = new ZipCodeRangeList();
+                long lineCount;
+                try {
+                    long offset = this.boundaries[this.from];
+                    long length = this.boundaries[this.to] - offset;
+                    lineCount = parseChunk(this.channel.map(FileChannel.MapMode.READ_ONLY, offset, length), offset,
+                        ranges);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return new ChunkResult(ranges.consolidate(), lineCount);
+            }
+            int middle = (this.from + this.to) >>> 1;
+            ChunkTask left = new ChunkTask(this.channel, this.boundaries, this.from, middle);
+            left.fork();
+            ChunkResult right = new ChunkTask(this.channel, this.boundaries, middle, this.to).compute();
+            ChunkResult leftResult = left.join();
+            leftResult.ranges.addAll(right.ranges);
+            return new ChunkResult(leftResult.ranges.consolidate(), leftResult.lineCount + right.lineCount);
+        }
+    }
+
+    /**
+     * The result of loading a file: the consolidated ranges along with the load statistics.
+     */
+    public static final class Result {
+        private final List<ZipCodeRange> ranges;
+        private final long lineCount;
+        private final long byteCount;
+        private final long elapsedNanos;
+
+        private Result(List<ZipCodeRange> ranges, long lineCount, long byteCount, long elapsedNanos) {
+            this.ranges = ranges;
+            this.lineCount = lineCount;
+            this.byteCount = byteCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Retrieves the consolidated ranges.
+         * @return A List of sorted (ascending) ZipCodeRange objects
+         */
+        public List<ZipCodeRange> getRanges() {
+            return this.ranges;
+        }
+
+        /**
+         * Retrieves the number of ranges read from the file, before consolidation.
+         * @return The number of non-blank lines in the file
+         */
+        public long getLineCount() {
+            return this.lineCount;
+        }
+
+        /**
+         * Retrieves the size of the file.
+         * @return The number of bytes read
+         */
+        public long getByteCount() {
+            return this.byteCount;
+        }
+
+        /**
+         * Retrieves the time taken to load the file.
+         * @return The elapsed time in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        /**
+         * Retrieves the load throughput.
+         * @return The number of megabytes (2^20 bytes) loaded per second
+         */
+        public double getThroughputMBps() {
+            double seconds = Math.max(this.elapsedNanos, 1) / 1e9;
+            return (this.byteCount / (1024.0 * 1024.0)) / seconds;
+        }
+
+        /**
+         * Returns a string representation of this instance.
+         */
+        @Override
+        public String toString() {
+            return String.format("Loaded %,d ranges (%,d consolidated) from %,d bytes in %.1f ms (%.1f MB/s)",
+                this.lineCount, this.ranges.size(), this.byteCount, this.elapsedNanos / 1e6, getThroughputMBps());
+        }
+    }
+}
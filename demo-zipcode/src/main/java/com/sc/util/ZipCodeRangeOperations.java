@@ -0,0 +1,211 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+
+import java.util.List;
+
+/**
+ * Set algebra over consolidated ZIP code ranges.
+ *
+ * Every operation is a single linear merge of its sorted inputs, so combining lists of n and m ranges costs O(n + m)
+ * and never expands a range into its individual ZIP codes. The inputs must be consolidated (sorted, non-overlapping and
+ * non-adjacent), as returned by {@link ZipCodeUtils#consolidate(List)} or {@link ZipCodeRangeList#consolidate()}, and
+ * every result is consolidated in the same way, so results can be fed straight into further operations.
+ */
+public final class ZipCodeRangeOperations {
+    private static final int MIN_ZIP_CODE = 0;
+    private static final int MAX_ZIP_CODE = 99999;
+
+    /*
+     * Private constructor.
+     */
+    private ZipCodeRangeOperations() {
+        // prevent instantiation
+    }
+
+    /**
+     * Returns the ZIP codes contained by either list.
+     * @param a The first consolidated list; null is treated as an empty list
+     * @param b The second consolidated list; null is treated as an empty list
+     * @return A consolidated List of ZipCodeRange objects
+     * @throws IllegalArgumentException when either list is not consolidated
+     */
+    public static List<ZipCodeRange> union(List<ZipCodeRange> a, List<ZipCodeRange> b) {
+        return union(ZipCodeRangeList.fromList(a), ZipCodeRangeList.fromList(b)).toList();
+    }
+
+    /**
+     * Returns the ZIP codes contained by either list.
+     * @param a The first consolidated list
+     * @param b The second consolidated list
+     * @return A consolidated ZipCodeRangeList
+     * @throws IllegalArgumentException when either list is not consolidated
+     */
+    public static ZipCodeRangeList union(ZipCodeRangeList a, ZipCodeRangeList b) {
+        validate(a);
+        validate(b);
+        ZipCodeRangeList result = new ZipCodeRangeList(a.size() + b.size());
+        int i = 0;
+        int j = 0;
+        int start = -1;
+        int end = -2;
+        while (i < a.size() || j < b.size()) {
+            // take whichever range starts first
+            int nextStart;
+            int nextEnd;
+            if (j >= b.size() || (i < a.size() && a.getStart(i) <= b.getStart(j))) {
+                nextStart = a.getStart(i);
+                nextEnd = a.getEnd(i++);
+            }
+            else {
+                nextStart = b.getStart(j);
+                nextEnd = b.getEnd(j++);
+            }
+            if (nextStart <= end + 1) {
+                end = Math.max(end, nextEnd);
+            }
+            else {
+                if (start >= 0) {
+                    result.addPacked(ZipCodeUtils.packRange(start, end));
+                }
+                start = nextStart;
+                end = nextEnd;
+            }
+        }
+        if (start >= 0) {
+            result.addPacked(ZipCodeUtils.packRange(start, end));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ZIP codes contained by both lists.
+     * @param a The first consolidated list; null is treated as an empty list
+     * @param b The second consolidated list; null is treated as an empty list
+     * @return A consolidated List of ZipCodeRange objects
+     * @throws IllegalArgumentException when either list is not consolidated
+     */
+    public static List<ZipCodeRange> intersection(List<ZipCodeRange> a, List<ZipCodeRange> b) {
+        return intersection(ZipCodeRangeList.fromList(a), ZipCodeRangeList.fromList(b)).toList();
+    }
+
+    /**
+     * Returns the ZIP codes contained by both lists.
+     * @param a The first consolidated list
+     * @param b The second consolidated list
+     * @return A consolidated ZipCodeRangeList
+     * @throws IllegalArgumentException when either list is not consolidated
+     */
+    public static ZipCodeRangeList intersection(ZipCodeRangeList a, ZipCodeRangeList b) {
+        validate(a);
+        validate(b);
+        ZipCodeRangeList result = new ZipCodeRangeList(Math.min(a.size(), b.size()));
+        int i = 0;
+        int j = 0;
+        while (i < a.size() && j < b.size()) {
+            int start = Math.max(a.getStart(i), b.getStart(j));
+            int end = Math.min(a.getEnd(i), b.getEnd(j));
+            if (start <= end) {
+                result.addPacked(ZipCodeUtils.packRange(start, end));
+            }
+            // the range that ends first cannot overlap anything further in the other list
+            if (a.getEnd(i) < b.getEnd(j)) {
+                i++;
+            }
+            else {
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ZIP codes contained by the first list but not by the second.
+     * @param a The consolidated list to subtract from; null is treated as an empty list
+     * @param b The consolidated list to be subtracted; null is treated as an empty list
+     * @return A consolidated List of ZipCodeRange objects
+     * @throws IllegalArgumentException when either list is not consolidated
+     */
+    public static List<ZipCodeRange> difference(List<ZipCodeRange> a, List<ZipCodeRange> b) {
+        return difference(ZipCodeRangeList.fromList(a), ZipCodeRangeList.fromList(b)).toList();
+    }
+
+    /**
+     * Returns the ZIP codes contained by the first list but not by the second.
+     * @param a The consolidated list to subtract from
+     * @param b The consolidated list to be subtracted
+     * @return A consolidated ZipCodeRangeList
+     * @throws IllegalArgumentException when either list is not consolidated
+     */
+    public static ZipCodeRangeList difference(ZipCodeRangeList a, ZipCodeRangeList b) {
+        validate(a);
+        validate(b);
+        ZipCodeRangeList result = new ZipCodeRangeList(a.size());
+        int j = 0;
+        for (int i = 0; i < a.size(); i++) {
+            int start = a.getStart(i);
+            int end = a.getEnd(i);
+            // skip the subtracted ranges that end before this range
+            while (j < b.size() && b.getEnd(j) < start) {
+                j++;
+            }
+            // cut out every subtracted range that overlaps this one; the last may also overlap the next range
+            int k = j;
+            while (start <= end && k < b.size() && b.getStart(k) <= end) {
+                if (b.getStart(k) > start) {
+                    result.addPacked(ZipCodeUtils.packRange(start, b.getStart(k) - 1));
+                }
+                start = Math.max(start, b.getEnd(k) + 1);
+                k++;
+            }
+            if (start <= end) {
+                result.addPacked(ZipCodeUtils.packRange(start, end));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ZIP codes (00000-99999) not contained by the list.
+     * @param ranges The consolidated list; null is treated as an empty list
+     * @return A consolidated List of ZipCodeRange objects
+     * @throws IllegalArgumentException when the list is not consolidated
+     */
+    public static List<ZipCodeRange> complement(List<ZipCodeRange> ranges) {
+        return complement(ZipCodeRangeList.fromList(ranges)).toList();
+    }
+
+    /**
+     * Returns the ZIP codes (00000-99999) not contained by the list.
+     * @param ranges The consolidated list
+     * @return A consolidated ZipCodeRangeList
+     * @throws IllegalArgumentException when the list is not consolidated
+     */
+    public static ZipCodeRangeList complement(ZipCodeRangeList ranges) {
+        validate(ranges);
+        ZipCodeRangeList result = new ZipCodeRangeList(ranges.size() + 1);
+        int next = MIN_ZIP_CODE;
+        for (int i = 0; i < ranges.size(); i++) {
+            if (ranges.getStart(i) > next) {
+                result.addPacked(ZipCodeUtils.packRange(next, ranges.getStart(i) - 1));
+            }
+            next = ranges.getEnd(i) + 1;
+        }
+        if (next <= MAX_ZIP_CODE) {
+            result.addPacked(ZipCodeUtils.packRange(next, MAX_ZIP_CODE));
+        }
+        return result;
+    }
+
+    /**
+     * Checks that the ranges are sorted, non-overlapping and non-adjacent.
+     */
+    static void validate(ZipCodeRangeList ranges) {
+        for (int i = 1; i < ranges.size(); i++) {
+            if (ranges.getStart(i) <= ranges.getEnd(i - 1) + 1) {
+                throw new IllegalArgumentException("Ranges must be consolidated: " + ranges.get(i).getRangeStr());
+            }
+        }
+    }
+}
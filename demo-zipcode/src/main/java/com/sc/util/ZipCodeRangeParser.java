@@ -0,0 +1,420 @@
+package com.sc.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A hand-written, allocation-free parser for ZIP code range strings.
+ *
+ * Accepts exactly the same syntax as {@link com.sc.model.ZipCodeRange#ZipCodeRange(String)}: two values of 1-5 digits
+ * separated by a comma, with optional surrounding [] and any amount of whitespace before/after the comma and within
+ * the brackets. The parsed range is returned packed into a single {@code long} (see
+ * {@link ZipCodeUtils#packRange(int, int)}), so no intermediate objects are created for valid input.
+ */
+public final class ZipCodeRangeParser {
+
+    /*
+     * Private constructor.
+     */
+    private ZipCodeRangeParser() {
+        // prevent instantiation
+    }
+
+    /**
+     * Parses a ZIP code range from a CharSequence.
+     * @param range A CharSequence of exactly two ZIP code values in the format of [#####,#####]
+     * @return The packed range, with the start no greater than the end
+     * @throws IllegalArgumentException when the format of the range is incorrect
+     */
+    public static long parse(CharSequence range) {
+        return parseRange(range, 0, range.length());
+    }
+
+    /**
+     * Parses a ZIP code range from a slice of a char[].
+     * @param chars The characters to be parsed
+     * @param offset The index of the first character of the range
+     * @param length The number of characters in the range
+     * @return The packed range, with the start no greater than the end
+     * @throws IllegalArgumentException when the format of the range is incorrect
+     */
+    public static long parse(char[] chars, int offset, int length) {
+        return parseRange(chars, offset, offset + length);
+    }
+
+    /**
+     * Parses a ZIP code range from a slice of a byte[] containing ASCII (or any ASCII-compatible encoding) text.
+     * @param bytes The bytes to be parsed
+     * @param offset The index of the first byte of the range
+     * @param length The number of bytes in the range
+     * @return The packed range, with the start no greater than the end
+     * @throws IllegalArgumentException when the format of the range is incorrect
+     */
+    public static long parse(byte[] bytes, int offset, int length) {
+        return parseRange(bytes, offset, offset + length);
+    }
+
+    /**
+     * Parses a ZIP code range from a slice of a ByteBuffer containing ASCII (or any ASCII-compatible encoding) text,
+     * reading it with absolute gets so that direct and memory-mapped buffers are parsed in place.
+     * @param buffer The bytes to be parsed; its position and limit are ignored and left unchanged
+     * @param offset The index of the first byte of the range
+     * @param length The number of bytes in the range
+     * @return The packed range, with the start no greater than the end
+     * @throws IllegalArgumentException when the format of the range is incorrect
+     */
+    public static long parse(ByteBuffer buffer, int offset, int length) {
+        return parseRange(buffer, offset, offset + length);
+    }
+
+    /**
+     * Parses a 5-digit ZIP code, such as {@code 01234}.
+     * @param zipCode A CharSequence of exactly 5 digits
+     * @return The ZIP code value
+     * @throws IllegalArgumentException when the ZIP code is not exactly 5 digits
+     */
+    public static int parseZipCode(CharSequence zipCode) {
+        int result = 0;
+        if (zipCode.length() != 5) {
+            throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+        }
+        for (int i = 0; i < 5; i++) {
+            char c = zipCode.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Parses a 9-digit ZIP+4 code, such as {@code 01234-5678} or {@code 012345678}.
+     * @param zipPlus4 A CharSequence of 5 digits, an optional hyphen, then 4 digits
+     * @return The ZIP+4 code value, ranging from 0-999999999
+     * @throws IllegalArgumentException when the ZIP+4 code is not in either format
+     */
+    public static int parseZipPlus4(CharSequence zipPlus4) {
+        int result = 0;
+        int length = zipPlus4.length();
+        if (length != 9 && (length != 10 || zipPlus4.charAt(5) != '-')) {
+            throw new IllegalArgumentException("Invalid ZIP+4 code: " + zipPlus4);
+        }
+        for (int i = 0; i < length; i++) {
+            char c = zipPlus4.charAt(i);
+            if (length == 10 && i == 5) {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid ZIP+4 code: " + zipPlus4);
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Parses the ZIP code field of a delimited record in place, without throwing for malformed values, so that
+     * record-oriented readers can count or route bad records cheaply.
+     * @param bytes The record bytes
+     * @param from The index of the first byte of the field (inclusive)
+     * @param to The index just past the last byte of the field (exclusive)
+     * @return The 5-digit ZIP code value, or -1 unless the field (ignoring surrounding spaces) is a 5-digit ZIP code or
+     *         a ZIP+4 code in the format {@code #####-####}
+     */
+    public static int parseZipCodeField(byte[] bytes, int from, int to) {
+        while (from < to && bytes[from] == ' ') {
+            from++;
+        }
+        while (to > from && bytes[to - 1] == ' ') {
+            to--;
+        }
+        int length = to - from;
+        boolean valid = length == 5 || (length == 10 && bytes[from + 5] == '-');
+        int result = 0;
+        for (int i = from; i < to && valid; i++) {
+            if (i != from + 5 || length == 5) {
+                int digit = bytes[i] - '0';
+                valid = digit >= 0 && digit <= 9;
+                if (i < from + 5) {
+                    result = result * 10 + digit;
+                }
+            }
+        }
+        return valid ? result : -1;
+    }
+
+    /**
+     * Parses the ZIP code field of a delimited record in place, reading the buffer with absolute gets so that records
+     * in a direct or memory-mapped buffer need not be copied to the heap first.
+     * @param buffer The record bytes; its position and limit are ignored and left unchanged
+     * @param from The index of the first byte of the field (inclusive)
+     * @param to The index just past the last byte of the field (exclusive)
+     * @return The 5-digit ZIP code value, or -1 unless the field (ignoring surrounding spaces) is a 5-digit ZIP code or
+     *         a ZIP+4 code in the format {@code #####-####}
+     */
+    public static int parseZipCodeField(ByteBuffer buffer, int from, int to) {
+        while (from < to && buffer.get(from) == ' ') {
+            from++;
+        }
+        while (to > from && buffer.get(to - 1) == ' ') {
+            to--;
+        }
+        int length = to - from;
+        boolean valid = length == 5 || (length == 10 && buffer.get(from + 5) == '-');
+        int result = 0;
+        for (int i = from; i < to && valid; i++) {
+            if (i != from + 5 || length == 5) {
+                int digit = buffer.get(i) - '0';
+                valid = digit >= 0 && digit <= 9;
+                if (i < from + 5) {
+                    result = result * 10 + digit;
+                }
+            }
+        }
+        return valid ? result : -1;
+    }
+
+    /**
+     * Parses the characters from {@code from} (inclusive) to {@code to} (exclusive) of a CharSequence.
+     */
+    private static long parseRange(CharSequence source, int from, int to) {
+        int pos = from;
+        if (pos < to && source.charAt(pos) == '[') {
+            pos++;
+        }
+        while (pos < to && isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+
+        int start = 0;
+        int digits = 0;
+        for (int c; pos < to && (c = source.charAt(pos)) >= '0' && c <= '9'; pos++, digits++) {
+            start = start * 10 + (c - '0');
+        }
+        if (digits == 0 || digits > 5) {
+            throw invalid(source, from, to);
+        }
+        while (pos < to && isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+
+        if (pos >= to || source.charAt(pos) != ',') {
+            throw invalid(source, from, to);
+        }
+        pos++;
+        while (pos < to && isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+
+        int end = 0;
+        digits = 0;
+        for (int c; pos < to && (c = source.charAt(pos)) >= '0' && c <= '9'; pos++, digits++) {
+            end = end * 10 + (c - '0');
+        }
+        if (digits == 0 || digits > 5) {
+            throw invalid(source, from, to);
+        }
+        while (pos < to && isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+
+        if (pos < to && source.charAt(pos) == ']') {
+            pos++;
+        }
+        if (pos != to) {
+            throw invalid(source, from, to);
+        }
+        return (start <= end) ? ZipCodeUtils.packRange(start, end) : ZipCodeUtils.packRange(end, start);
+    }
+
+    /**
+     * Parses the characters from {@code from} (inclusive) to {@code to} (exclusive) of a char[].
+     */
+    private static long parseRange(char[] source, int from, int to) {
+        int pos = from;
+        if (pos < to && source[pos] == '[') {
+            pos++;
+        }
+        while (pos < to && isWhitespace(source[pos])) {
+            pos++;
+        }
+
+        int start = 0;
+        int digits = 0;
+        for (int c; pos < to && (c = source[pos]) >= '0' && c <= '9'; pos++, digits++) {
+            start = start * 10 + (c - '0');
+        }
+        if (digits == 0 || digits > 5) {
+            throw invalid(source, from, to);
+        }
+        while (pos < to && isWhitespace(source[pos])) {
+            pos++;
+        }
+
+        if (pos >= to || source[pos] != ',') {
+            throw invalid(source, from, to);
+        }
+        pos++;
+        while (pos < to && isWhitespace(source[pos])) {
+            pos++;
+        }
+
+        int end = 0;
+        digits = 0;
+        for (int c; pos < to && (c = source[pos]) >= '0' && c <= '9'; pos++, digits++) {
+            end = end * 10 + (c - '0');
+        }
+        if (digits == 0 || digits > 5) {
+            throw invalid(source, from, to);
+        }
+        while (pos < to && isWhitespace(source[pos])) {
+            pos++;
+        }
+
+        if (pos < to && source[pos] == ']') {
+            pos++;
+        }
+        if (pos != to) {
+            throw invalid(source, from, to);
+        }
+        return (start <= end) ? ZipCodeUtils.packRange(start, end) : ZipCodeUtils.packRange(end, start);
+    }
+
+    /**
+     * Parses the bytes from {@code from} (inclusive) to {@code to} (exclusive) of a byte[].
+     */
+    private static long parseRange(byte[] source, int from, int to) {
+        int pos = from;
+        if (pos < to && (source[pos] & 0xFF) == '[') {
+            pos++;
+        }
+        while (pos < to && isWhitespace((source[pos] & 0xFF))) {
+            pos++;
+        }
+
+        int start = 0;
+        int digits = 0;
+        for (int c; pos < to && (c = (source[pos] & 0xFF)) >= '0' && c <= '9'; pos++, digits++) {
+            start = start * 10 + (c - '0');
+        }
+        if (digits == 0 || digits > 5) {
+            throw invalid(source, from, to);
+        }
+        while (pos < to && isWhitespace((source[pos] & 0xFF))) {
+            pos++;
+        }
+
+        if (pos >= to || (source[pos] & 0xFF) != ',') {
+            throw invalid(source, from, to);
+        }
+        pos++;
+        while (pos < to && isWhitespace((source[pos] & 0xFF))) {
+            pos++;
+        }
+
+        int end = 0;
+        digits = 0;
+        for (int c; pos < to && (c = (source[pos] & 0xFF)) >= '0' && c <= '9'; pos++, digits++) {
+            end = end * 10 + (c - '0');
+        }
+        if (digits == 0 || digits > 5) {
+            throw invalid(source, from, to);
+        }
+        while (pos < to && isWhitespace((source[pos] & 0xFF))) {
+            pos++;
+        }
+
+        if (pos < to && (source[pos] & 0xFF) == ']') {
+            pos++;
+        }
+        if (pos != to) {
+            throw invalid(source, from, to);
+        }
+        return (start <= end) ? ZipCodeUtils.packRange(start, end) : ZipCodeUtils.packRange(end, start);
+    }
+
+    /**
+     * Parses the bytes from {@code from} (inclusive) to {@code to} (exclusive) of a ByteBuffer.
+     */
+    private static long parseRange(ByteBuffer source, int from, int to) {
+        int pos = from;
+        if (pos < to && (source.get(pos) & 0xFF) == '[') {
+            pos++;
+        }
+        while (pos < to && isWhitespace((source.get(pos) & 0xFF))) {
+            pos++;
+        }
+
+        int start = 0;
+        int digits = 0;
+        for (int c; pos < to && (c = (source.get(pos) & 0xFF)) >= '0' && c <= '9'; pos++, digits++) {
+            start = start * 10 + (c - '0');
+        }
+        if (digits == 0 || digits > 5) {
+            throw invalid(source, from, to);
+        }
+        while (pos < to && isWhitespace((source.get(pos) & 0xFF))) {
+            pos++;
+        }
+
+        if (pos >= to || (source.get(pos) & 0xFF) != ',') {
+            throw invalid(source, from, to);
+        }
+        pos++;
+        while (pos < to && isWhitespace((source.get(pos) & 0xFF))) {
+            pos++;
+        }
+
+        int end = 0;
+        digits = 0;
+        for (int c; pos < to && (c = (source.get(pos) & 0xFF)) >= '0' && c <= '9'; pos++, digits++) {
+            end = end * 10 + (c - '0');
+        }
+        if (digits == 0 || digits > 5) {
+            throw invalid(source, from, to);
+        }
+        while (pos < to && isWhitespace((source.get(pos) & 0xFF))) {
+            pos++;
+        }
+
+        if (pos < to && (source.get(pos) & 0xFF) == ']') {
+            pos++;
+        }
+        if (pos != to) {
+            throw invalid(source, from, to);
+        }
+        return (start <= end) ? ZipCodeUtils.packRange(start, end) : ZipCodeUtils.packRange(end, start);
+    }
+
+    /**
+     * Checks if a character is whitespace, using the same definition as the regular expression {@code \s}.
+     */
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Creates the exception for an invalid range, using the same message as the ZipCodeRange(String) constructor.
+     */
+    private static IllegalArgumentException invalid(Object source, int from, int to) {
+        String text;
+        if (source instanceof byte[]) {
+            text = new String((byte[]) source, from, to - from, StandardCharsets.ISO_8859_1);
+        }
+        else if (source instanceof ByteBuffer) {
+            byte[] bytes = new byte[to - from];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = ((ByteBuffer) source).get(from + i);
+            }
+            text = new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        else if (source instanceof char[]) {
+            text = new String((char[]) source, from, to - from);
+        }
+        else {
+            text = ((CharSequence) source).subSequence(from, to).toString();
+        }
+        return new IllegalArgumentException("Invalid ZIP code range: " + text);
+    }
+}
@@ -0,0 +1,204 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Answers aggregate questions about a set of excluded ranges - how many ZIP codes in a range are excluded, whether a
+ * range is fully allowed or fully excluded, and where the next allowed or excluded ZIP code is - in O(log n) time for
+ * n consolidated ranges, without visiting individual ZIP codes.
+ *
+ * The ranges are consolidated once into sorted {@code starts} and {@code ends} arrays, alongside a prefix sum of the
+ * range lengths: {@code excludedBefore[i]} is the number of ZIP codes excluded by the ranges before range {@code i}.
+ * Every query is a binary search for the range at or before a ZIP code followed by constant-time arithmetic.
+ * Instances are immutable and may be shared read-only across threads.
+ */
+public final class ZipCodeRangeQueryIndex {
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] excludedBefore;
+
+    /**
+     * Builds the index from the specified ranges.
+     * @param ranges The List of ZipCodeRange objects to be excluded; may be unsorted or overlapping, and null is
+     *               treated as an empty list
+     */
+    public ZipCodeRangeQueryIndex(List<ZipCodeRange> ranges) {
+        this(ZipCodeRangeList.fromList(ranges).consolidate());
+    }
+
+    /*
+     * Builds the index from consolidated ranges.
+     */
+    private ZipCodeRangeQueryIndex(ZipCodeRangeList consolidated) {
+        int count = consolidated.size();
+        this.starts = new int[count];
+        this.ends = new int[count];
+        this.excludedBefore = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            this.starts[i] = consolidated.getStart(i);
+            this.ends[i] = consolidated.getEnd(i);
+            this.excludedBefore[i + 1] = this.excludedBefore[i] + this.ends[i] - this.starts[i] + 1;
+        }
+    }
+
+    /**
+     * Builds the index from the specified packed ranges.
+     * @param ranges The ranges to be excluded; may be unsorted or overlapping, and are not modified
+     * @return The newly built index
+     */
+    public static ZipCodeRangeQueryIndex fromRangeList(ZipCodeRangeList ranges) {
+        ZipCodeRangeList copy = new ZipCodeRangeList(ranges.size());
+        copy.addAll(ranges);
+        return new ZipCodeRangeQueryIndex(copy.consolidate());
+    }
+
+    /**
+     * Counts the excluded ZIP codes within a range.
+     * @param start The starting ZIP code
+     * @param end The ending ZIP code
+     * @return The number of excluded ZIP codes from start to end (inclusive)
+     * @throws IllegalArgumentException when either ZIP code is not within 0-99999
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public int countExcluded(int start, int end) {
+        validate(start);
+        validate(end);
+        return countBefore(Math.max(start, end) + 1) - countBefore(Math.min(start, end));
+    }
+
+    /**
+     * Retrieves the total number of individual ZIP codes excluded.
+     * @return The number of excluded ZIP codes
+     */
+    public int getExcludedCount() {
+        return this.excludedBefore[this.starts.length];
+    }
+
+    /**
+     * Retrieves the number of consolidated ranges.
+     * @return The range count
+     */
+    public int getRangeCount() {
+        return this.starts.length;
+    }
+
+    /**
+     * Checks if the specified ZIP code is excluded.
+     * @param zipCode The ZIP code to check
+     * @return true if the ZIP code is excluded; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public boolean isExcluded(int zipCode) {
+        validate(zipCode);
+        int i = floor(zipCode);
+        return i >= 0 && zipCode <= this.ends[i];
+    }
+
+    /**
+     * Checks if no ZIP code within a range is excluded.
+     * @param start The starting ZIP code
+     * @param end The ending ZIP code
+     * @return true if every ZIP code from start to end (inclusive) is allowed; otherwise false
+     * @throws IllegalArgumentException when either ZIP code is not within 0-99999
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public boolean isFullyAllowed(int start, int end) {
+        return countExcluded(start, end) == 0;
+    }
+
+    /**
+     * Checks if every ZIP code within a range is excluded.
+     * @param start The starting ZIP code
+     * @param end The ending ZIP code
+     * @return true if every ZIP code from start to end (inclusive) is excluded; otherwise false
+     * @throws IllegalArgumentException when either ZIP code is not within 0-99999
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public boolean isFullyExcluded(int start, int end) {
+        validate(start);
+        validate(end);
+        // the ranges are consolidated, so a fully excluded range lies within a single one of them
+        int i = floor(Math.min(start, end));
+        return i >= 0 && Math.max(start, end) <= this.ends[i];
+    }
+
+    /**
+     * Finds the first allowed ZIP code at or after the specified ZIP code.
+     * @param zipCode The ZIP code to start from
+     * @return The next allowed ZIP code, or -1 if every ZIP code from zipCode to 99999 is excluded
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public int nextAllowed(int zipCode) {
+        validate(zipCode);
+        int result = zipCode;
+        int i = floor(zipCode);
+        if (i >= 0 && zipCode <= this.ends[i]) {
+            // the ranges are consolidated, so the ZIP code after a range is never excluded
+            result = this.ends[i] < 99999 ? this.ends[i] + 1 : -1;
+        }
+        return result;
+    }
+
+    /**
+     * Finds the first excluded ZIP code at or after the specified ZIP code.
+     * @param zipCode The ZIP code to start from
+     * @return The next excluded ZIP code, or -1 if every ZIP code from zipCode to 99999 is allowed
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public int nextExcluded(int zipCode) {
+        validate(zipCode);
+        int result = zipCode;
+        int i = floor(zipCode);
+        if (i < 0 || zipCode > this.ends[i]) {
+            result = i + 1 < this.starts.length ? this.starts[i + 1] : -1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        return "ZipCodeRangeQueryIndex {ranges: " + getRangeCount() + ", excluded: " + getExcludedCount() + "}";
+    }
+
+    /**
+     * Counts the excluded ZIP codes below the specified value, which may be 100000.
+     */
+    private int countBefore(int zipCode) {
+        int result = 0;
+        int i = floor(zipCode - 1);
+        if (i >= 0) {
+            result = this.excludedBefore[i] + Math.min(this.ends[i], zipCode - 1) - this.starts[i] + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the last range starting at or before the ZIP code, or -1 if there is none.
+     */
+    private int floor(int zipCode) {
+        int i = Arrays.binarySearch(this.starts, zipCode);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /**
+     * Throws an IllegalArgumentException unless the ZIP code is within 0-99999.
+     */
+    private static void validate(int zipCode) {
+        if (zipCode < 0 || zipCode > 99999) {
+            throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes consolidated exclusion ranges in a compact, versioned binary format, so that a consolidated set can
+ * be loaded without re-parsing and re-consolidating the original text.
+ *
+ * Layout (multi-byte integers are big-endian):
+ * <pre>
+ * <code>magic    4 bytes   "ZCRS"</code>
+ * <code>version  1 byte    FORMAT_VERSION</code>
+ * <code>count    4 bytes   number of ranges</code>
+ * <code>ranges   count x   varint(start - (previous end + 1)), varint(end - start)</code>
+ * <code>checksum 4 bytes   CRC-32 of all preceding bytes</code>
+ * </pre>
+ * Varints use 7 bits per byte with the high bit set on all but the last byte, so a typical range takes 2-4 bytes.
+ */
+public final class ZipCodeRangeSnapshotFormat {
+    /**
+     * The current version of the format.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x5A435253;
+    private static final int HEADER_SIZE = 9;
+    private static final int CHECKSUM_SIZE = 4;
+
+    /*
+     * Private constructor.
+     */
+    private ZipCodeRangeSnapshotFormat() {
+        // prevent instantiation
+    }
+
+    /**
+     * Writes a snapshot of the specified ranges.
+     * @param ranges The consolidated ranges, as returned by {@link ZipCodeUtils#consolidate(List)}
+     * @param out The stream to write to; it is not closed
+     * @throws IOException when the stream cannot be written
+     * @throws IllegalArgumentException when the ranges are not sorted and non-overlapping
+     */
+    public static void write(List<ZipCodeRange> ranges, OutputStream out) throws IOException {
+        out.write(toByteArray(ZipCodeRangeList.fromList(ranges)));
+    }
+
+    /**
+     * Encodes a snapshot of the specified ranges.
+     * @param ranges The consolidated ranges
+     * @return The encoded snapshot
+     * @throws IllegalArgumentException when the ranges are not sorted and non-overlapping
+     */
+    public static byte[] toByteArray(ZipCodeRangeList ranges) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + ranges.size() * 4 + CHECKSUM_SIZE);
+        writeInt(bytes, MAGIC);
+        bytes.write(FORMAT_VERSION);
+        writeInt(bytes, ranges.size());
+        int previousEnd = -1;
+        for (int i = 0; i < ranges.size(); i++) {
+            int start = ranges.getStart(i);
+            int end = ranges.getEnd(i);
+            if (start <= previousEnd) {
+                throw new IllegalArgumentException("Ranges must be sorted and non-overlapping: " +
+                    ranges.get(i).getRangeStr());
+            }
+            writeVarint(bytes, start - (previousEnd + 1));
+            writeVarint(bytes, end - start);
+            previousEnd = end;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray(), 0, bytes.size());
+        writeInt(bytes, (int) crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a snapshot into a packed list of ranges.
+     * @param in The stream to read from; it is read to the end but not closed
+     * @return The consolidated ranges
+     * @throws IOException when the stream cannot be read or does not contain a valid snapshot
+     */
+    public static ZipCodeRangeList readRanges(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read; (read = in.read(buffer)) != -1;) {
+            bytes.write(buffer, 0, read);
+        }
+        return readRanges(bytes.toByteArray());
+    }
+
+    /**
+     * Decodes a snapshot into a packed list of ranges.
+     * @param snapshot The encoded snapshot
+     * @return The consolidated ranges
+     * @throws IOException when the bytes do not contain a valid snapshot
+     */
+    public static ZipCodeRangeList readRanges(byte[] snapshot) throws IOException {
+        if (snapshot.length < HEADER_SIZE + CHECKSUM_SIZE) {
+            throw new EOFException("Truncated snapshot: " + snapshot.length + " bytes");
+        }
+        if (readInt(snapshot, 0) != MAGIC) {
+            throw new IOException("Not a ZIP code range snapshot");
+        }
+        if (snapshot[4] != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot version: " + snapshot[4]);
+        }
+        int checksumOffset = snapshot.length - CHECKSUM_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(snapshot, 0, checksumOffset);
+        if ((int) crc.getValue() != readInt(snapshot, checksumOffset)) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+        int count = readInt(snapshot, 5);
+        if (count < 0 || count > (checksumOffset - HEADER_SIZE) / 2) {
+            throw new IOException("Invalid snapshot range count: " + count);
+        }
+
+        ZipCodeRangeList ranges = new ZipCodeRangeList(count);
+        int[] position = {HEADER_SIZE};
+        int previousEnd = -1;
+        for (int i = 0; i < count; i++) {
+            long start = previousEnd + 1L + readVarint(snapshot, position, checksumOffset);
+            long end = start + readVarint(snapshot, position, checksumOffset);
+            if (end > 99999) {
+                throw new IOException("Invalid snapshot range: " + start + "-" + end);
+            }
+            ranges.addPacked(ZipCodeUtils.packRange((int) start, (int) end));
+            previousEnd = (int) end;
+        }
+        if (position[0] != checksumOffset) {
+            throw new IOException("Unexpected data after " + count + " snapshot ranges");
+        }
+        return ranges;
+    }
+
+    /**
+     * Reads a snapshot straight into a lookup index.
+     * @param in The stream to read from; it is read to the end but not closed
+     * @return The index of the consolidated ranges
+     * @throws IOException when the stream cannot be read or does not contain a valid snapshot
+     */
+    public static ZipCodeExclusionIndex readIndex(InputStream in) throws IOException {
+        return ZipCodeExclusionIndex.fromRangeList(readRanges(in));
+    }
+
+    /**
+     * Writes a 4-byte big-endian int.
+     */
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * Reads a 4-byte big-endian int at the specified offset.
+     */
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) |
+            ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    /**
+     * Writes an unsigned varint: 7 bits per byte, least significant first, with the high bit set on all but the last.
+     */
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Reads a varint at {@code position[0]}, advancing the position past it.
+     */
+    private static int readVarint(byte[] bytes, int[] position, int limit) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (position[0] >= limit) {
+                throw new EOFException("Truncated snapshot range data");
+            }
+            int b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IOException("Invalid snapshot varint");
+    }
+}
@@ -0,0 +1,309 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+/**
+ * A store of excluded ZIP code ranges partitioned into 1000 shards by 3-digit prefix (the sectional center facility).
+ *
+ * Shard {@code p} holds the consolidated ranges within {@code p*100} to {@code p*100+99} as two small sorted int
+ * arrays, so replacing the ranges of one prefix consolidates only that prefix's ranges and leaves the other 999 shards
+ * untouched. Shards are immutable and published through an {@link AtomicReferenceArray}: lookups never block, each
+ * shard can be rebuilt or replaced independently (and in parallel by {@link #load(ZipCodeRangeList)}), and concurrent
+ * additions to the same shard are retried rather than lost. A shard whose whole prefix is excluded is flagged, so
+ * lookups in it answer without probing any range.
+ *
+ * Ranges that cross a prefix boundary are split between the shards they cover; {@link #toRangeList()} joins them up
+ * again.
+ */
+public final class ZipCodeShardedRangeStore {
+    /**
+     * The number of shards, one per 3-digit ZIP code prefix.
+     */
+    public static final int SHARD_COUNT = 1000;
+
+    /**
+     * The number of ZIP codes in each shard.
+     */
+    public static final int SHARD_SIZE = 100;
+
+    private static final Shard EMPTY = new Shard(new int[0], new int[0]);
+
+    private final AtomicReferenceArray<Shard> shards = new AtomicReferenceArray<>(SHARD_COUNT);
+
+    /**
+     * Creates an empty store.
+     */
+    public ZipCodeShardedRangeStore() {
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            this.shards.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * Adds a range, updating only the shards it covers.
+     * @param start The starting ZIP code
+     * @param end The ending ZIP code
+     * @throws IllegalArgumentException when the ZIP code value is not within the supported range
+     *
+     * Note: the order of the parameter values is unimportant as the minimum and maximum values will be determined
+     *       internally
+     */
+    public void add(int start, int end) {
+        ZipCodeRange range = new ZipCodeRange(start, end);
+        for (int prefix = range.getStart() / SHARD_SIZE; prefix <= range.getEnd() / SHARD_SIZE; prefix++) {
+            int from = Math.max(range.getStart(), prefix * SHARD_SIZE);
+            int to = Math.min(range.getEnd(), prefix * SHARD_SIZE + SHARD_SIZE - 1);
+            Shard current;
+            Shard updated;
+            do {
+                current = this.shards.get(prefix);
+                if (current.full) {
+                    break;
+                }
+                ZipCodeRangeList ranges = current.toRangeList();
+                ranges.add(from, to);
+                updated = Shard.of(ranges);
+            } while (!this.shards.compareAndSet(prefix, current, updated));
+        }
+    }
+
+    /**
+     * Adds a range, updating only the shards it covers.
+     * @param range The range to be added
+     */
+    public void add(ZipCodeRange range) {
+        add(range.getStart(), range.getEnd());
+    }
+
+    /**
+     * Replaces every shard with the specified ranges, building the shards in parallel.
+     * @param ranges The ranges to be excluded; may be unsorted or overlapping, and null is treated as an empty list
+     */
+    public void load(List<ZipCodeRange> ranges) {
+        load(ZipCodeRangeList.fromList(ranges));
+    }
+
+    /**
+     * Replaces every shard with the specified ranges, building the shards in parallel.
+     * @param ranges The ranges to be excluded; may be unsorted or overlapping
+     */
+    public void load(ZipCodeRangeList ranges) {
+        ZipCodeRangeList[] pieces = new ZipCodeRangeList[SHARD_COUNT];
+        ranges.forEach((start, end) -> {
+            for (int prefix = start / SHARD_SIZE; prefix <= end / SHARD_SIZE; prefix++) {
+                if (pieces[prefix] == null) {
+                    pieces[prefix] = new ZipCodeRangeList();
+                }
+                pieces[prefix].add(Math.max(start, prefix * SHARD_SIZE),
+                    Math.min(end, prefix * SHARD_SIZE + SHARD_SIZE - 1));
+            }
+        });
+        IntStream.range(0, SHARD_COUNT).parallel()
+            .forEach(prefix -> this.shards.set(prefix, Shard.of(pieces[prefix])));
+    }
+
+    /**
+     * Replaces the ranges of a single prefix, leaving every other shard untouched.
+     * @param prefix The 3-digit ZIP code prefix, from 0-999
+     * @param ranges The ranges to be excluded within the prefix; may be unsorted or overlapping, and null is treated as
+     *               an empty list
+     * @throws IllegalArgumentException when the prefix is not within 0-999 or a range lies outside the prefix
+     */
+    public void replaceShard(int prefix, List<ZipCodeRange> ranges) {
+        checkPrefix(prefix);
+        ZipCodeRangeList pieces = new ZipCodeRangeList();
+        if (ranges != null) {
+            for (ZipCodeRange range : ranges) {
+                if (range.getStart() / SHARD_SIZE != prefix || range.getEnd() / SHARD_SIZE != prefix) {
+                    throw new IllegalArgumentException("ZIP code range outside prefix " + formatPrefix(prefix) + ": " +
+                        range.getRangeStr());
+                }
+                pieces.add(range);
+            }
+        }
+        this.shards.set(prefix, Shard.of(pieces));
+    }
+
+    /**
+     * Removes every range.
+     */
+    public void clear() {
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            this.shards.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * Retrieves the number of prefixes that are excluded in full.
+     * @return The count of full shards
+     */
+    public int getFullPrefixCount() {
+        int result = 0;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            if (this.shards.get(i).full) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the number of ranges held, counting a range that crosses a prefix boundary once per shard.
+     * @return The total range count of all shards
+     */
+    public int getRangeCount() {
+        int result = 0;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            result += this.shards.get(i).starts.length;
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the consolidated ranges of a single prefix.
+     * @param prefix The 3-digit ZIP code prefix, from 0-999
+     * @return A List of ZipCodeRange objects, sorted by start
+     * @throws IllegalArgumentException when the prefix is not within 0-999
+     */
+    public List<ZipCodeRange> getShardRanges(int prefix) {
+        checkPrefix(prefix);
+        return this.shards.get(prefix).toRangeList().toList();
+    }
+
+    /**
+     * Checks if a ZIP code is excluded, probing only the shard of its prefix.
+     * @param zipCode The ZIP code to check
+     * @return true if the ZIP code is excluded; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not within 0-99999
+     */
+    public boolean isExcluded(int zipCode) {
+        if (zipCode < 0 || zipCode >= SHARD_COUNT * SHARD_SIZE) {
+            throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
+        }
+        return this.shards.get(zipCode / SHARD_SIZE).contains(zipCode);
+    }
+
+    /**
+     * Checks if a ZIP code is excluded, probing only the shard of its prefix.
+     * @param zipCode The 5-digit ZIP code to check
+     * @return true if the ZIP code is excluded; otherwise false
+     * @throws IllegalArgumentException when the ZIP code is not exactly 5 digits
+     */
+    public boolean isExcluded(String zipCode) {
+        return isExcluded(ZipCodeRangeParser.parseZipCode(zipCode));
+    }
+
+    /**
+     * Checks if every ZIP code with the specified prefix is excluded.
+     * @param prefix The 3-digit ZIP code prefix, from 0-999
+     * @return true if the whole prefix is excluded; otherwise false
+     * @throws IllegalArgumentException when the prefix is not within 0-999
+     */
+    public boolean isPrefixExcluded(int prefix) {
+        checkPrefix(prefix);
+        return this.shards.get(prefix).full;
+    }
+
+    /**
+     * Retrieves every range, joining ranges that were split across adjacent prefixes.
+     * @return The consolidated ranges of all shards
+     */
+    public ZipCodeRangeList toRangeList() {
+        ZipCodeRangeList result = new ZipCodeRangeList();
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            Shard shard = this.shards.get(i);
+            for (int j = 0; j < shard.starts.length; j++) {
+                result.add(shard.starts[j], shard.ends[j]);
+            }
+        }
+        // the shards are already in order, so this only merges the ranges that meet at prefix boundaries
+        return result.consolidate();
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        return "ZipCodeShardedRangeStore {ranges: " + getRangeCount() + ", fullPrefixes: " + getFullPrefixCount() + "}";
+    }
+
+    /**
+     * Throws an IllegalArgumentException unless the prefix is within 0-999.
+     */
+    private static void checkPrefix(int prefix) {
+        if (prefix < 0 || prefix >= SHARD_COUNT) {
+            throw new IllegalArgumentException("Invalid ZIP code prefix: " + prefix);
+        }
+    }
+
+    /**
+     * Formats a prefix as the three digits it stands for, such as {@code 007}.
+     */
+    private static String formatPrefix(int prefix) {
+        return String.format("%03d", prefix);
+    }
+
+    /**
+     * An immutable, consolidated set of ranges within one prefix.
+     */
+    private static final class Shard {
+        private final int[] starts;
+        private final int[] ends;
+        private final boolean full;
+
+        private Shard(int[] starts, int[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+            this.full = starts.length == 1 && ends[0] - starts[0] == SHARD_SIZE - 1;
+        }
+
+        /**
+         * Consolidates the ranges of a prefix into a shard; null is treated as an empty list.
+         */
+        private static Shard of(ZipCodeRangeList ranges) {
+            Shard result = EMPTY;
+            if (ranges != null && !ranges.isEmpty()) {
+                ranges.consolidate();
+                int[] starts = new int[ranges.size()];
+                int[] ends = new int[ranges.size()];
+                for (int i = 0; i < starts.length; i++) {
+                    starts[i] = ranges.getStart(i);
+                    ends[i] = ranges.getEnd(i);
+                }
+                result = new Shard(starts, ends);
+            }
+            return result;
+        }
+
+        /**
+         * Checks if the ZIP code, which must have this shard's prefix, is within one of its ranges.
+         */
+        private boolean contains(int zipCode) {
+            boolean result = this.full;
+            if (!result) {
+                int i = Arrays.binarySearch(this.starts, zipCode);
+                // otherwise i is -(insertion point) - 1, and the candidate range starts just before the insertion point
+                result = i >= 0 || (i < -1 && zipCode <= this.ends[-i - 2]);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the ranges of the shard as a new packed list.
+         */
+        private ZipCodeRangeList toRangeList() {
+            ZipCodeRangeList result = new ZipCodeRangeList(this.starts.length + 1);
+            for (int i = 0; i < this.starts.length; i++) {
+                result.add(this.starts[i], this.ends[i]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.sc.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streams newline-delimited records through an exclusion index, either filtering them or annotating each one with
+ * its result, for use as a stage in a shell pipeline.
+ *
+ * Records are read from a channel in large buffers and scanned in place as bytes: the ZIP code field is located by
+ * counting delimiters, parsed without creating a String, and checked against a {@link ZipCodeExclusionIndex}. Output
+ * records are copied into a large buffer that is written to the output channel whenever it fills up.
+ *
+ * The ZIP code field may be a 5-digit ZIP code or a ZIP+4 code ({@code #####-####}) and may be surrounded by spaces.
+ * Records with a missing or malformed ZIP code are counted as invalid: they are dropped by the filtering modes and
+ * annotated as {@code invalid} by {@link Mode#ANNOTATE}. Output records always end with {@code \n}; a trailing
+ * {@code \r} on an input record is removed.
+ */
+public final class ZipCodeStreamFilter {
+    /**
+     * The default size of the read and write buffers, in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private static final byte[] EXCLUDED = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ALLOWED = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INVALID = "invalid".getBytes(StandardCharsets.US_ASCII);
+    private static final int STATUS_EXCLUDED = 0;
+    private static final int STATUS_ALLOWED = 1;
+    private static final int STATUS_INVALID = 2;
+
+    /**
+     * What to do with each record.
+     */
+    public enum Mode {
+        /**
+         * Write only the records whose ZIP code is not excluded.
+         */
+        ALLOWED,
+        /**
+         * Write only the records whose ZIP code is excluded.
+         */
+        EXCLUDED,
+        /**
+         * Write every record, followed by the delimiter and {@code true}, {@code false} or {@code invalid}.
+         */
+        ANNOTATE
+    }
+
+    private final ZipCodeExclusionIndex index;
+    private final Mode mode;
+    private final byte delimiter;
+    private final int column;
+    private final int bufferSize;
+
+    /**
+     * Creates a filter for records that consist of a ZIP code alone.
+     * @param index The exclusion index to check against
+     * @param mode What to do with each record
+     */
+    public ZipCodeStreamFilter(ZipCodeExclusionIndex index, Mode mode) {
+        this(index, mode, (byte) ',', 0, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a filter for delimited records.
+     * @param index The exclusion index to check against
+     * @param mode What to do with each record
+     * @param delimiter The single-byte field delimiter, such as {@code ','}, {@code '|'} or {@code '\t'}
+     * @param column The zero-based index of the field holding the ZIP code
+     * @param bufferSize The size of the read and write buffers in bytes; the read buffer grows to fit longer records
+     * @throws IllegalArgumentException when the column is negative or the buffer size is not positive
+     */
+    public ZipCodeStreamFilter(ZipCodeExclusionIndex index, Mode mode, byte delimiter, int column, int bufferSize) {
+        if (column < 0) {
+            throw new IllegalArgumentException("Invalid column: " + column);
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+        }
+        this.index = index;
+        this.mode = mode;
+        this.delimiter = delimiter;
+        this.column = column;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Reads every record from the input channel and writes the filtered or annotated records to the output channel.
+     * Neither channel is closed.
+     * @param in The channel to read records from
+     * @param out The channel to write records to
+     * @return The record counts and throughput
+     * @throws IOException when either channel fails
+     */
+    public Result filter(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        long startNanos = System.nanoTime();
+        long[] counts = new long[3];
+        long byteCount = 0;
+        ByteBuffer input = ByteBuffer.allocate(this.bufferSize);
+        ByteBuffer output = ByteBuffer.allocate(this.bufferSize);
+        boolean eof = false;
+        while (!eof) {
+            int read = in.read(input);
+            if (read < 0) {
+                eof = true;
+            }
+            else {
+                byteCount += read;
+            }
+            byte[] bytes = input.array();
+            int limit = input.position();
+            int lineStart = 0;
+            for (int i = 0; i < limit; i++) {
+                if (bytes[i] == '\n') {
+                    process(bytes, lineStart, i, counts, output, out);
+                    lineStart = i + 1;
+                }
+            }
+            if (eof && lineStart < limit) {
+                // the last record has no line terminator
+                process(bytes, lineStart, limit, counts, output, out);
+                lineStart = limit;
+            }
+            // move the incomplete record to the start of the buffer, growing it if the record fills the buffer
+            input.flip();
+            input.position(lineStart);
+            input.compact();
+            if (!input.hasRemaining()) {
+                input = ByteBuffer.wrap(Arrays.copyOf(input.array(), input.capacity() * 2), input.position(),
+                    input.capacity());
+            }
+        }
+        flush(output, out);
+        return new Result(counts[STATUS_EXCLUDED], counts[STATUS_ALLOWED], counts[STATUS_INVALID], byteCount,
+            System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Checks a single record, from {@code from} (inclusive) to {@code to} (exclusive), and writes it if required.
+     */
+    private void process(byte[] bytes, int from, int to, long[] counts, ByteBuffer output, WritableByteChannel out)
+            throws IOException {
+        if (to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        if (to == from) {
+            // blank lines are not records
+            return;
+        }
+        int status = check(bytes, from, to);
+        counts[status]++;
+        boolean write;
+        switch (this.mode) {
+            case ALLOWED:
+                write = status == STATUS_ALLOWED;
+                break;
+            case EXCLUDED:
+                write = status == STATUS_EXCLUDED;
+                break;
+            default:
+                write = true;
+                break;
+        }
+        if (write) {
+            byte[] annotation = null;
+            int length = to - from + 1;
+            if (this.mode == Mode.ANNOTATE) {
+                annotation = status == STATUS_EXCLUDED ? EXCLUDED : status == STATUS_ALLOWED ? ALLOWED : INVALID;
+                length += annotation.length + 1;
+            }
+            if (output.remaining() < length) {
+                flush(output, out);
+            }
+            if (output.remaining() < length) {
+                // the record is larger than the whole write buffer, so it is written straight to the channel
+                writeFully(ByteBuffer.wrap(bytes, from, to - from), out);
+                if (annotation != null) {
+                    writeFully(ByteBuffer.wrap(new byte[] {this.delimiter}), out);
+                    writeFully(ByteBuffer.wrap(annotation), out);
+                }
+                writeFully(ByteBuffer.wrap(new byte[] {'\n'}), out);
+            }
+            else {
+                output.put(bytes, from, to - from);
+                if (annotation != null) {
+                    output.put(this.delimiter);
+                    output.put(annotation);
+                }
+                output.put((byte) '\n');
+            }
+        }
+    }
+
+    /**
+     * Locates and parses the ZIP code field of a record and checks it against the index.
+     * @return STATUS_EXCLUDED, STATUS_ALLOWED or STATUS_INVALID
+     */
+    private int check(byte[] bytes, int from, int to) {
+        int fieldStart = from;
+        for (int field = 0; field < this.column; field++) {
+            while (fieldStart < to && bytes[fieldStart] != this.delimiter) {
+                fieldStart++;
+            }
+            if (fieldStart == to) {
+                return STATUS_INVALID;
+            }
+            fieldStart++;
+        }
+        int fieldEnd = fieldStart;
+        while (fieldEnd < to && bytes[fieldEnd] != this.delimiter) {
+            fieldEnd++;
+        }
+        int zipCode = ZipCodeRangeParser.parseZipCodeField(bytes, fieldStart, fieldEnd);
+        if (zipCode < 0) {
+            return STATUS_INVALID;
+        }
+        return this.index.isExcluded(zipCode) ? STATUS_EXCLUDED : STATUS_ALLOWED;
+    }
+
+    /**
+     * Writes out everything in the output buffer and empties it for reuse.
+     */
+    private static void flush(ByteBuffer output, WritableByteChannel out) throws IOException {
+        output.flip();
+        writeFully(output, out);
+        output.clear();
+    }
+
+    /**
+     * Writes every remaining byte of the buffer, since a single write may be partial.
+     */
+    private static void writeFully(ByteBuffer buffer, WritableByteChannel out) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * The record counts and throughput of a single {@link #filter(ReadableByteChannel, WritableByteChannel)} call.
+     */
+    public static final class Result {
+        private final long excludedCount;
+        private final long allowedCount;
+        private final long invalidCount;
+        private final long byteCount;
+        private final long elapsedNanos;
+
+        private Result(long excludedCount, long allowedCount, long invalidCount, long byteCount, long elapsedNanos) {
+            this.excludedCount = excludedCount;
+            this.allowedCount = allowedCount;
+            this.invalidCount = invalidCount;
+            this.byteCount = byteCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Retrieves the number of records whose ZIP code is not excluded.
+         * @return The allowed record count
+         */
+        public long getAllowedCount() {
+            return this.allowedCount;
+        }
+
+        /**
+         * Retrieves the number of bytes read.
+         * @return The input size in bytes
+         */
+        public long getByteCount() {
+            return this.byteCount;
+        }
+
+        /**
+         * Retrieves the time taken to process the input.
+         * @return The elapsed time in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        /**
+         * Retrieves the number of records whose ZIP code is excluded.
+         * @return The excluded record count
+         */
+        public long getExcludedCount() {
+            return this.excludedCount;
+        }
+
+        /**
+         * Retrieves the number of records with a missing or malformed ZIP code.
+         * @return The invalid record count
+         */
+        public long getInvalidCount() {
+            return this.invalidCount;
+        }
+
+        /**
+         * Retrieves the total number of (non-blank) records read.
+         * @return The record count
+         */
+        public long getRecordCount() {
+            return this.excludedCount + this.allowedCount + this.invalidCount;
+        }
+
+        /**
+         * Retrieves the processing throughput.
+         * @return The number of records processed per second
+         */
+        public double getRecordsPerSecond() {
+            return getRecordCount() / (Math.max(this.elapsedNanos, 1) / 1e9);
+        }
+
+        /**
+         * Returns a string representation of this instance.
+         */
+        @Override
+        public String toString() {
+            return String.format("Processed %,d records (%,d excluded, %,d allowed, %,d invalid) from %,d bytes in " +
+                "%.1f ms (%,.0f records/s)", getRecordCount(), this.excludedCount, this.allowedCount,
+                this.invalidCount, this.byteCount, this.elapsedNanos / 1e6, getRecordsPerSecond());
+        }
+    }
+}
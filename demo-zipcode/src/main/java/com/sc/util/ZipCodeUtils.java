@@ -3,16 +3,16 @@ package com.sc.util;
 import com.sc.model.ZipCodeRange;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 /**
  * A collection of utility methods for working with ZIP codes.
  */
 public class ZipCodeUtils {
+    private static volatile ZipCodeMetricsSink metricsSink = ZipCodeMetricsSink.NO_OP;
 
     /*
      * Private constructor.
@@ -21,34 +21,38 @@ public class ZipCodeUtils {
         // prevent instantiation
     }
 
-    private static Pattern zipCodePattern = Pattern.compile("(\\d{5})");
-
     /**
      * Consolidates a list of ZipCodeRange objects into the shortest possible grouping of ranges.
+     *
+     * The ranges are sorted into a copy of the list and merged in a single sweep, comparing each range only with the
+     * last range emitted, so the caller's list is neither reordered nor modified.
      * @param ranges The list of ZipCodeRange objects to be processed
      * @return A List of sorted (ascending) ZipCodeRange objects
      */
     public static List<ZipCodeRange> consolidate(List<ZipCodeRange> ranges) {
-        Set<ZipCodeRange> sortedRanges = new TreeSet<>(ZipCodeRange.COMPARATOR);
-        if (ranges != null) {
-            ranges.sort(ZipCodeRange.COMPARATOR);
-            for (ZipCodeRange zcr : ranges) {
-                // create a copy, so the original object is not change by a future merge
-                ZipCodeRange merge = ZipCodeRange.copy(zcr);
-                boolean didOverlap = false;
-                for (ZipCodeRange existingRange : sortedRanges) {
-                    if (existingRange.isMergeable(merge)) {
-                        existingRange.merge(merge);
-                        didOverlap = true;
-                        break;
-                    }
+        ZipCodeMetricsSink sink = metricsSink;
+        long startNanos = sink == ZipCodeMetricsSink.NO_OP ? 0 : System.nanoTime();
+        List<ZipCodeRange> result = new ArrayList<>();
+        if (ranges != null && !ranges.isEmpty()) {
+            ZipCodeRange[] sorted = ranges.toArray(new ZipCodeRange[0]);
+            Arrays.sort(sorted, ZipCodeRange.COMPARATOR);
+            // create a copy, so the original object is not changed by a future merge
+            ZipCodeRange last = ZipCodeRange.copy(sorted[0]);
+            result.add(last);
+            for (int i = 1; i < sorted.length; i++) {
+                if (last.isMergeable(sorted[i])) {
+                    last.merge(sorted[i]);
                 }
-                if (!didOverlap) {
-                    sortedRanges.add(merge);
+                else {
+                    last = ZipCodeRange.copy(sorted[i]);
+                    result.add(last);
                 }
             }
         }
-        return new ArrayList<>(sortedRanges);
+        if (sink != ZipCodeMetricsSink.NO_OP) {
+            sink.recordConsolidation(ranges == null ? 0 : ranges.size(), result.size(), System.nanoTime() - startNanos);
+        }
+        return result;
     }
 
     /**
@@ -60,17 +64,46 @@ public class ZipCodeUtils {
     public static boolean isExcluded(String zipCode, List<ZipCodeRange> excludeRange) {
         boolean result = false;
         if (zipCode != null) {
-            Matcher matcher = zipCodePattern.matcher(zipCode);
-            if (matcher.matches()) {
-                result = isExcluded(Integer.valueOf(matcher.group(1)), excludeRange);
-            }
-            else {
-                throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
-            }
+            result = isExcluded(ZipCodeRangeParser.parseZipCode(zipCode), excludeRange);
         }
         return result;
     }
 
+    /**
+     * Checks each of the specified ZIP codes against the known ZIP code ranges. The ranges are indexed once for the
+     * whole batch, so this is much faster than calling {@link #isExcluded(String, List)} for each ZIP code.
+     * @param zipCodes The ZIP codes to check; null elements are treated as not excluded
+     * @param excludeRange The List of ZipCodeRange object to use for exclusion
+     * @return A boolean[] where each element is true if the ZIP code at the same position is excluded
+     * @throws IllegalArgumentException when any non-null ZIP code is not exactly 5 digits
+     */
+    public static boolean[] isExcludedBatch(String[] zipCodes, List<ZipCodeRange> excludeRange) {
+        return new ZipCodeExclusionIndex(excludeRange).isExcludedBatch(zipCodes);
+    }
+
+    /**
+     * Checks each of the specified ZIP codes against the known ZIP code ranges. The ranges are indexed once for the
+     * whole batch, so this is much faster than calling {@link #isExcluded(int, List)} for each ZIP code.
+     * @param zipCodes The ZIP codes to check
+     * @param excludeRange The List of ZipCodeRange object to use for exclusion
+     * @return A boolean[] where each element is true if the ZIP code at the same position is excluded
+     * @throws IllegalArgumentException when any ZIP code is not within 0-99999
+     */
+    public static boolean[] isExcludedBatch(int[] zipCodes, List<ZipCodeRange> excludeRange) {
+        return new ZipCodeExclusionIndex(excludeRange).isExcludedBatch(zipCodes);
+    }
+
+    /**
+     * Checks each of the ZIP codes in the specified stream against the known ZIP code ranges.
+     * @param zipCodes The ZIP codes to check; parallel streams are checked in parallel
+     * @param excludeRange The List of ZipCodeRange object to use for exclusion
+     * @return A BitSet where bit {@code i} is set if the i-th ZIP code (in encounter order) is excluded
+     * @throws IllegalArgumentException when any ZIP code is not within 0-99999
+     */
+    public static BitSet isExcludedBatch(IntStream zipCodes, List<ZipCodeRange> excludeRange) {
+        return new ZipCodeExclusionIndex(excludeRange).isExcludedBatch(zipCodes);
+    }
+
     /**
      * Checks if the specified ZIP code should be excluded (contained) by any of the known ZIP code ranges.
      * @param zipCode The ZIP code to check
@@ -78,6 +111,43 @@ public class ZipCodeUtils {
      * @return true if the specified ZIP code is contained by the exclusion range; otherwise false
      */
     public static boolean isExcluded(int zipCode, List<ZipCodeRange> excludeRange) {
+        boolean result;
+        ZipCodeMetricsSink sink = metricsSink;
+        if (sink == ZipCodeMetricsSink.NO_OP) {
+            result = scan(zipCode, excludeRange);
+        }
+        else {
+            boolean timed = ZipCodeMetricsSink.sampleLatency();
+            long startNanos = timed ? System.nanoTime() : 0;
+            result = scan(zipCode, excludeRange);
+            sink.recordLookup(result);
+            if (timed) {
+                sink.recordLookupLatency(System.nanoTime() - startNanos);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sets the sink that receives lookup and consolidation measurements from this class.
+     * @param sink The sink to use, such as a {@link ZipCodeMetrics}; null restores {@link ZipCodeMetricsSink#NO_OP}
+     */
+    public static void setMetricsSink(ZipCodeMetricsSink sink) {
+        metricsSink = sink == null ? ZipCodeMetricsSink.NO_OP : sink;
+    }
+
+    /**
+     * Retrieves the sink that receives lookup and consolidation measurements from this class.
+     * @return The current sink, which is {@link ZipCodeMetricsSink#NO_OP} unless one has been set
+     */
+    public static ZipCodeMetricsSink getMetricsSink() {
+        return metricsSink;
+    }
+
+    /**
+     * Checks the ZIP code against each range in turn.
+     */
+    private static boolean scan(int zipCode, List<ZipCodeRange> excludeRange) {
         boolean result = false;
         if (zipCode < 0 || zipCode > 99999) {
             throw new IllegalArgumentException("Invalid ZIP code: " + zipCode);
@@ -93,6 +163,35 @@ public class ZipCodeUtils {
         return result;
     }
 
+    /**
+     * Packs the start and end of a ZIP code range into a single long, with the start in the upper 32 bits and the
+     * end in the lower 32 bits. Packed values sort in the same order as {@link ZipCodeRange#COMPARATOR}.
+     * @param start The starting ZIP code
+     * @param end The ending ZIP code
+     * @return The packed range
+     */
+    public static long packRange(int start, int end) {
+        return ((long) start << 32) | (end & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Retrieves the start of a range packed by {@link #packRange(int, int)}.
+     * @param packed The packed range
+     * @return The starting ZIP code
+     */
+    public static int unpackStart(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    /**
+     * Retrieves the end of a range packed by {@link #packRange(int, int)}.
+     * @param packed The packed range
+     * @return The ending ZIP code
+     */
+    public static int unpackEnd(long packed) {
+        return (int) packed;
+    }
+
     /**
      * Checks of the specified ZIP code is in the specific range. Both start and end ranges values are considered
      * to be inclusive, so:
@@ -0,0 +1,360 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipPlus4Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compressed index of excluded ZIP+4 codes, answering lookups in constant time over the 10<sup>9</sup> code space.
+ *
+ * Codes are split into 100,000 buckets (the 5-digit ZIP code) of 10,000 codes each (the +4 suffix), similar to a
+ * Roaring bitmap. Two bitmaps over the buckets record which buckets are fully excluded and which are partially
+ * excluded; each partial bucket has a container, found through a per-word rank table, holding its +4 codes as
+ * whichever is smallest of:
+ * <ul>
+ *     <li>a sorted array of codes, for a few scattered codes</li>
+ *     <li>a 10,000-bit bitmap, for many scattered codes</li>
+ *     <li>sorted runs of codes, for a few ranges</li>
+ * </ul>
+ * Apart from the fixed 31 KB of bucket bitmaps and rank table, memory grows with the number of ranges rather than
+ * with the number of codes they cover. Whole 5-digit ranges cost a single bit per ZIP code.
+ */
+public final class ZipPlus4Index {
+    private static final int BUCKET_COUNT = 100000;
+    private static final int BUCKET_SIZE = ZipPlus4Range.PLUS_4_COUNT;
+    private static final int BUCKET_WORDS = (BUCKET_COUNT + 63) >>> 6;
+    private static final int BITMAP_WORDS = (BUCKET_SIZE + 63) >>> 6;
+
+    private final long[] full = new long[BUCKET_WORDS];
+    private final long[] partial = new long[BUCKET_WORDS];
+    private final int[] rank = new int[BUCKET_WORDS];
+    private final Container[] containers;
+    private final long excludedCount;
+
+    /**
+     * Creates an index of the specified ranges.
+     * @param ranges The ZIP+4 ranges to be excluded; may be unsorted or overlapping, and null is treated as an empty
+     *               list
+     */
+    public ZipPlus4Index(List<ZipPlus4Range> ranges) {
+        List<Container> built = new ArrayList<>();
+        long count = 0;
+        if (ranges != null && !ranges.isEmpty()) {
+            ZipPlus4Range[] sorted = ranges.toArray(new ZipPlus4Range[0]);
+            Arrays.sort(sorted, ZipPlus4Range.COMPARATOR);
+            BucketBuilder bucket = new BucketBuilder();
+            int start = sorted[0].getStart();
+            int end = sorted[0].getEnd();
+            for (int i = 1; i <= sorted.length; i++) {
+                if (i < sorted.length && sorted[i].getStart() <= end + 1) {
+                    end = Math.max(end, sorted[i].getEnd());
+                }
+                else {
+                    count += (long) end - start + 1;
+                    addRange(start, end, bucket, built);
+                    if (i < sorted.length) {
+                        start = sorted[i].getStart();
+                        end = sorted[i].getEnd();
+                    }
+                }
+            }
+            flush(bucket, built);
+        }
+        for (int word = 1; word < BUCKET_WORDS; word++) {
+            this.rank[word] = this.rank[word - 1] + Long.bitCount(this.partial[word - 1]);
+        }
+        this.containers = built.toArray(new Container[0]);
+        this.excludedCount = count;
+    }
+
+    /**
+     * Creates an index that excludes every ZIP+4 code within the specified 5-digit ZIP code ranges.
+     * @param ranges The 5-digit ranges to be excluded; null is treated as an empty list
+     * @return The newly created index
+     */
+    public static ZipPlus4Index fromZipCodeRanges(List<ZipCodeRange> ranges) {
+        List<ZipPlus4Range> expanded = new ArrayList<>();
+        if (ranges != null) {
+            for (ZipCodeRange range : ranges) {
+                expanded.add(ZipPlus4Range.fromZipCodeRange(range));
+            }
+        }
+        return new ZipPlus4Index(expanded);
+    }
+
+    /**
+     * Checks if the specified ZIP+4 code is excluded.
+     * @param zipPlus4 The ZIP+4 code to check, such as {@code 94133-0101}
+     * @return true if the code is excluded; otherwise false
+     * @throws IllegalArgumentException when the ZIP+4 code is not 9 digits, with or without the hyphen
+     */
+    public boolean isExcluded(String zipPlus4) {
+        return isExcluded(ZipCodeRangeParser.parseZipPlus4(zipPlus4));
+    }
+
+    /**
+     * Checks if the specified ZIP+4 code is excluded.
+     * @param zipPlus4 The ZIP+4 code value
+     * @return true if the code is excluded; otherwise false
+     * @throws IllegalArgumentException when the ZIP+4 code is not within 0-999999999
+     */
+    public boolean isExcluded(int zipPlus4) {
+        if (zipPlus4 < 0 || zipPlus4 > ZipPlus4Range.MAX_ZIP_PLUS_4) {
+            throw new IllegalArgumentException("Invalid ZIP+4 code: " + zipPlus4);
+        }
+        boolean result = false;
+        int bucket = zipPlus4 / BUCKET_SIZE;
+        int word = bucket >>> 6;
+        long bit = 1L << bucket;
+        if ((this.full[word] & bit) != 0) {
+            result = true;
+        }
+        else if ((this.partial[word] & bit) != 0) {
+            int index = this.rank[word] + Long.bitCount(this.partial[word] & (bit - 1));
+            result = this.containers[index].contains(zipPlus4 - bucket * BUCKET_SIZE);
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the number of excluded ZIP+4 codes.
+     * @return The number of excluded codes
+     */
+    public long getExcludedCount() {
+        return this.excludedCount;
+    }
+
+    /**
+     * Estimates the memory used by the index data, excluding object headers.
+     * @return The approximate size in bytes
+     */
+    public long getSizeInBytes() {
+        long result = (this.full.length + this.partial.length) * 8L + this.rank.length * 4L +
+            this.containers.length * 4L;
+        for (Container container : this.containers) {
+            result += container.getSizeInBytes();
+        }
+        return result;
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     */
+    @Override
+    public String toString() {
+        int fullCount = 0;
+        for (long word : this.full) {
+            fullCount += Long.bitCount(word);
+        }
+        int[] types = new int[3];
+        for (Container container : this.containers) {
+            types[container.getType()]++;
+        }
+        return "ZipPlus4Index {excluded: " + this.excludedCount + ", fullBuckets: " + fullCount +
+            ", arrayContainers: " + types[ArrayContainer.TYPE] + ", bitmapContainers: " + types[BitmapContainer.TYPE] +
+            ", runContainers: " + types[RunContainer.TYPE] + ", bytes: " + getSizeInBytes() + "}";
+    }
+
+    /**
+     * Adds a consolidated range, which is greater than every range added before it, splitting it into buckets.
+     */
+    private void addRange(int start, int end, BucketBuilder bucket, List<Container> built) {
+        int firstBucket = start / BUCKET_SIZE;
+        int lastBucket = end / BUCKET_SIZE;
+        for (int b = firstBucket; b <= lastBucket; b++) {
+            if (b != bucket.bucket) {
+                flush(bucket, built);
+                bucket.bucket = b;
+            }
+            int low = b == firstBucket ? start - b * BUCKET_SIZE : 0;
+            int high = b == lastBucket ? end - b * BUCKET_SIZE : BUCKET_SIZE - 1;
+            bucket.addRun(low, high);
+        }
+    }
+
+    /**
+     * Stores the runs collected for the current bucket as either a full bucket or a container, then resets it.
+     */
+    private void flush(BucketBuilder bucket, List<Container> built) {
+        if (bucket.runCount > 0) {
+            int word = bucket.bucket >>> 6;
+            long bit = 1L << bucket.bucket;
+            if (bucket.runCount == 1 && bucket.cardinality == BUCKET_SIZE) {
+                this.full[word] |= bit;
+            }
+            else {
+                this.partial[word] |= bit;
+                built.add(bucket.toContainer());
+            }
+        }
+        bucket.bucket = -1;
+        bucket.runCount = 0;
+        bucket.cardinality = 0;
+    }
+
+    /**
+     * Collects the sorted, non-adjacent runs of +4 codes within a single bucket while the index is built.
+     */
+    private static final class BucketBuilder {
+        private int bucket = -1;
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int runCount;
+        private int cardinality;
+
+        /**
+         * Appends a run of values from {@code low} to {@code high} (inclusive), which must follow the previous run.
+         */
+        private void addRun(int low, int high) {
+            if (this.runCount == this.starts.length) {
+                this.starts = Arrays.copyOf(this.starts, this.runCount * 2);
+                this.ends = Arrays.copyOf(this.ends, this.runCount * 2);
+            }
+            this.starts[this.runCount] = low;
+            this.ends[this.runCount] = high;
+            this.runCount++;
+            this.cardinality += high - low + 1;
+        }
+
+        /**
+         * Creates the smallest container for the collected runs.
+         */
+        private Container toContainer() {
+            int arrayBytes = this.cardinality * 2;
+            int bitmapBytes = BITMAP_WORDS * 8;
+            int runBytes = this.runCount * 4;
+            Container result;
+            if (runBytes <= arrayBytes && runBytes <= bitmapBytes) {
+                short[] runStarts = new short[this.runCount];
+                short[] runEnds = new short[this.runCount];
+                for (int i = 0; i < this.runCount; i++) {
+                    runStarts[i] = (short) this.starts[i];
+                    runEnds[i] = (short) this.ends[i];
+                }
+                result = new RunContainer(runStarts, runEnds);
+            }
+            else if (arrayBytes <= bitmapBytes) {
+                short[] values = new short[this.cardinality];
+                int n = 0;
+                for (int i = 0; i < this.runCount; i++) {
+                    for (int value = this.starts[i]; value <= this.ends[i]; value++) {
+                        values[n++] = (short) value;
+                    }
+                }
+                result = new ArrayContainer(values);
+            }
+            else {
+                long[] words = new long[BITMAP_WORDS];
+                for (int i = 0; i < this.runCount; i++) {
+                    for (int value = this.starts[i]; value <= this.ends[i]; value++) {
+                        words[value >>> 6] |= 1L << value;
+                    }
+                }
+                result = new BitmapContainer(words);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The +4 codes excluded within a partially excluded bucket.
+     */
+    private abstract static class Container {
+        abstract boolean contains(int low);
+
+        abstract int getSizeInBytes();
+
+        abstract int getType();
+    }
+
+    /**
+     * A sorted array of codes; lookups are a binary search over at most 628 values.
+     */
+    private static final class ArrayContainer extends Container {
+        private static final int TYPE = 0;
+        private final short[] values;
+
+        private ArrayContainer(short[] values) {
+            this.values = values;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return Arrays.binarySearch(this.values, (short) low) >= 0;
+        }
+
+        @Override
+        int getSizeInBytes() {
+            return this.values.length * 2;
+        }
+
+        @Override
+        int getType() {
+            return TYPE;
+        }
+    }
+
+    /**
+     * One bit per code.
+     */
+    private static final class BitmapContainer extends Container {
+        private static final int TYPE = 1;
+        private final long[] words;
+
+        private BitmapContainer(long[] words) {
+            this.words = words;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return (this.words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        int getSizeInBytes() {
+            return this.words.length * 8;
+        }
+
+        @Override
+        int getType() {
+            return TYPE;
+        }
+    }
+
+    /**
+     * Sorted, non-adjacent runs of codes; lookups are a binary search over at most 314 runs.
+     */
+    private static final class RunContainer extends Container {
+        private static final int TYPE = 2;
+        private final short[] starts;
+        private final short[] ends;
+
+        private RunContainer(short[] starts, short[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+        }
+
+        @Override
+        boolean contains(int low) {
+            int index = Arrays.binarySearch(this.starts, (short) low);
+            if (index < 0) {
+                // the run starting before the code, if any
+                index = -index - 2;
+            }
+            return index >= 0 && low <= this.ends[index];
+        }
+
+        @Override
+        int getSizeInBytes() {
+            return this.starts.length * 4;
+        }
+
+        @Override
+        int getType() {
+            return TYPE;
+        }
+    }
+}
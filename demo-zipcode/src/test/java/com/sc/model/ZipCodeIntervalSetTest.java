@@ -0,0 +1,191 @@
+package com.sc.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ZipCodeIntervalSetTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static void assertRanges(ZipCodeIntervalSet set, int[]... expected) {
+        List<ZipCodeRange> ranges = set.toList();
+        assertEquals(expected.length, ranges.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], ranges.get(i).getRangeArray());
+        }
+    }
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void addWithStartTooLarge() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid start value for ZIP code range: 100000");
+        new ZipCodeIntervalSet().add(100000, 1);
+    }
+
+    @Test
+    public void removeWithNegativeEnd() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid end value for ZIP code range: -1");
+        new ZipCodeIntervalSet().remove(1, -1);
+    }
+
+    @Test
+    public void containsBadZipCode() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code: 100000");
+        new ZipCodeIntervalSet().contains(100000);
+    }
+
+    // --------------------------------------------------
+    // Typical usage - add()
+    // --------------------------------------------------
+
+    @Test
+    public void createFromList() {
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet(Arrays.asList(
+            new ZipCodeRange("94600,94699"), new ZipCodeRange("94133,94133"), new ZipCodeRange("94134,94140")));
+        assertRanges(set, new int[] {94133, 94140}, new int[] {94600, 94699});
+        assertTrue(new ZipCodeIntervalSet(null).isEmpty());
+    }
+
+    @Test
+    public void addDisjoint() {
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet();
+        set.add(300, 400);
+        set.add(100, 200);
+        assertRanges(set, new int[] {100, 200}, new int[] {300, 400});
+    }
+
+    @Test
+    public void addAdjacentBothSides() {
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet();
+        set.add(100, 200);
+        set.add(300, 400);
+        set.add(201, 299);
+        assertRanges(set, new int[] {100, 400});
+    }
+
+    @Test
+    public void addSpanningSeveral() {
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet();
+        set.add(10, 20);
+        set.add(30, 40);
+        set.add(50, 60);
+        set.add(70, 80);
+        set.add(35, 65);
+        assertRanges(set, new int[] {10, 20}, new int[] {30, 65}, new int[] {70, 80});
+    }
+
+    @Test
+    public void addContained() {
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet();
+        set.add(10, 100);
+        set.add(new ZipCodeRange("20,30"));
+        assertRanges(set, new int[] {10, 100});
+    }
+
+    @Test
+    public void addFullRange() {
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet();
+        set.add(0, 0);
+        set.add(99999, 99999);
+        set.add(1, 99998);
+        assertRanges(set, new int[] {0, 99999});
+    }
+
+    // --------------------------------------------------
+    // Typical usage - remove()
+    // --------------------------------------------------
+
+    @Test
+    public void removeSplits() {
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet();
+        set.add(100, 200);
+        set.remove(150, 150);
+        assertRanges(set, new int[] {100, 149}, new int[] {151, 200});
+        assertFalse(set.contains(150));
+        assertTrue(set.contains(151));
+    }
+
+    @Test
+    public void removeTrimsAndDeletes() {
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet();
+        set.add(10, 20);
+        set.add(30, 40);
+        set.add(50, 60);
+        set.remove(new ZipCodeRange("15,55"));
+        assertRanges(set, new int[] {10, 14}, new int[] {56, 60});
+    }
+
+    @Test
+    public void removeExact() {
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet();
+        set.add(10, 20);
+        set.remove(20, 10);
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void removeMissing() {
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet();
+        set.add(10, 20);
+        set.remove(21, 30);
+        assertRanges(set, new int[] {10, 20});
+    }
+
+    // --------------------------------------------------
+    // Typical usage - contains()
+    // --------------------------------------------------
+
+    @Test
+    public void randomEditsMatchModel() {
+        Random random = new Random(17);
+        boolean[] model = new boolean[100000];
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet();
+        for (int i = 0; i < 2000; i++) {
+            int start = random.nextInt(100000);
+            int end = Math.min(99999, start + random.nextInt(200));
+            boolean add = random.nextInt(3) != 0;
+            if (add) {
+                set.add(start, end);
+            }
+            else {
+                set.remove(start, end);
+            }
+            Arrays.fill(model, start, end + 1, add);
+        }
+        for (int zipCode = 0; zipCode < model.length; zipCode++) {
+            assertEquals(model[zipCode], set.contains(zipCode));
+        }
+        // the set is always consolidated: no two ranges overlap or touch
+        ZipCodeRangeList ranges = set.toRangeList();
+        for (int i = 1; i < ranges.size(); i++) {
+            assertTrue(ranges.getStart(i) > ranges.getEnd(i - 1) + 1);
+        }
+        assertEquals(ranges.size(), set.size());
+    }
+
+    @Test
+    public void clear() {
+        ZipCodeIntervalSet set = new ZipCodeIntervalSet();
+        set.add(1, 2);
+        set.clear();
+        assertEquals(0, set.size());
+        assertEquals("ZipCodeIntervalSet {size: 0}", set.toString());
+    }
+}
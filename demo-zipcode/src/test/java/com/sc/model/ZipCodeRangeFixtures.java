@@ -0,0 +1,47 @@
+package com.sc.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds ZipCodeRange fixtures for tests.
+ */
+public final class ZipCodeRangeFixtures {
+
+    /*
+     * Private constructor.
+     */
+    private ZipCodeRangeFixtures() {
+        // prevent instantiation
+    }
+
+    /**
+     * Creates a list of ranges.
+     * @param ranges The ranges in the format of [#####,#####]
+     * @return A modifiable List of ZipCodeRange objects, in the same order
+     */
+    public static List<ZipCodeRange> ranges(String... ranges) {
+        List<ZipCodeRange> result = new ArrayList<>(ranges.length);
+        for (String range : ranges) {
+            result.add(new ZipCodeRange(range));
+        }
+        return result;
+    }
+
+    /**
+     * Creates a list of random ranges.
+     * @param random The source of the start and length of each range
+     * @param count The number of ranges
+     * @param maxLength The maximum number of ZIP codes in each range
+     * @return A modifiable List of ZipCodeRange objects, unsorted and possibly overlapping
+     */
+    public static List<ZipCodeRange> randomRanges(Random random, int count, int maxLength) {
+        List<ZipCodeRange> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int start = random.nextInt(100000);
+            result.add(new ZipCodeRange(start, Math.min(99999, start + random.nextInt(maxLength))));
+        }
+        return result;
+    }
+}
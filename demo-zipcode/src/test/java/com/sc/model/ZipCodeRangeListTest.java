@@ -0,0 +1,188 @@
+package com.sc.model;
+
+import com.sc.util.ZipCodeUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.sc.model.ZipCodeRangeFixtures.randomRanges;
+import static org.junit.Assert.*;
+
+public class ZipCodeRangeListTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void createWithNegativeCapacity() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid capacity: -1");
+        new ZipCodeRangeList(-1);
+    }
+
+    @Test
+    public void addWithNegativeStart() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid start value for ZIP code range: -10000");
+        new ZipCodeRangeList().add(-10000, 22222);
+    }
+
+    @Test
+    public void addWithEndTooLarge() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid end value for ZIP code range: 100000");
+        new ZipCodeRangeList().add(10000, 100000);
+    }
+
+    @Test
+    public void getOutOfBounds() {
+        thrown.expect(IndexOutOfBoundsException.class);
+        thrown.expectMessage("Index: 1, Size: 1");
+        ZipCodeRangeList list = new ZipCodeRangeList();
+        list.add(1, 2);
+        list.get(1);
+    }
+
+    // --------------------------------------------------
+    // Typical usage - add() / get()
+    // --------------------------------------------------
+
+    @Test
+    public void addAndGet() {
+        ZipCodeRangeList list = new ZipCodeRangeList(0);
+        assertTrue(list.isEmpty());
+        list.add(33333, 22222);
+        list.add(new ZipCodeRange("[00000,00500]"));
+        assertEquals(2, list.size());
+        assertEquals(22222, list.getStart(0));
+        assertEquals(33333, list.getEnd(0));
+        assertArrayEquals(new int[] {0, 500}, list.get(1).getRangeArray());
+    }
+
+    @Test
+    public void addGrowsCapacity() {
+        ZipCodeRangeList list = new ZipCodeRangeList(1);
+        for (int i = 0; i < 1000; i++) {
+            list.add(i, i);
+        }
+        assertEquals(1000, list.size());
+        assertEquals(999, list.getStart(999));
+    }
+
+    @Test
+    public void addAll() {
+        ZipCodeRangeList list1 = new ZipCodeRangeList();
+        list1.add(1, 2);
+        ZipCodeRangeList list2 = new ZipCodeRangeList();
+        list2.add(5, 6);
+        list2.add(3, 4);
+        list1.addAll(list2);
+        assertEquals(3, list1.size());
+        assertEquals(3, list1.getStart(2));
+    }
+
+    @Test
+    public void clear() {
+        ZipCodeRangeList list = new ZipCodeRangeList();
+        list.add(1, 2);
+        list.clear();
+        assertTrue(list.isEmpty());
+    }
+
+    // --------------------------------------------------
+    // Typical usage - sort() / consolidate()
+    // --------------------------------------------------
+
+    @Test
+    public void sortUsesComparatorOrder() {
+        ZipCodeRangeList list = new ZipCodeRangeList();
+        list.add(20000, 20005);
+        list.add(10000, 10010);
+        list.add(10000, 10005);
+        list.sort();
+        assertArrayEquals(new int[] {10000, 10005}, list.get(0).getRangeArray());
+        assertArrayEquals(new int[] {10000, 10010}, list.get(1).getRangeArray());
+        assertArrayEquals(new int[] {20000, 20005}, list.get(2).getRangeArray());
+    }
+
+    @Test
+    public void consolidateEmpty() {
+        assertEquals(0, new ZipCodeRangeList().consolidate().size());
+    }
+
+    @Test
+    public void consolidateAdjacentAndOverlapping() {
+        ZipCodeRangeList list = new ZipCodeRangeList();
+        list.add(10100, 10150);
+        list.add(10001, 10099);
+        list.add(10120, 10130);
+        list.add(20000, 20000);
+        list.add(20002, 20003);
+        list.consolidate();
+        assertEquals(3, list.size());
+        assertArrayEquals(new int[] {10001, 10150}, list.get(0).getRangeArray());
+        assertArrayEquals(new int[] {20000, 20000}, list.get(1).getRangeArray());
+        assertArrayEquals(new int[] {20002, 20003}, list.get(2).getRangeArray());
+    }
+
+    @Test
+    public void consolidateMatchesZipCodeUtils() {
+        Random random = new Random(5);
+        List<ZipCodeRange> ranges = randomRanges(random, 10000, 20);
+        List<ZipCodeRange> expected = ZipCodeUtils.consolidate(ranges);
+        List<ZipCodeRange> actual = ZipCodeRangeList.fromList(ranges).consolidate().toList();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i).getRangeArray(), actual.get(i).getRangeArray());
+        }
+    }
+
+    // --------------------------------------------------
+    // Typical usage - conversion and iteration
+    // --------------------------------------------------
+
+    @Test
+    public void fromListNull() {
+        assertEquals(0, ZipCodeRangeList.fromList(null).size());
+    }
+
+    @Test
+    public void fromListAndToList() {
+        List<ZipCodeRange> ranges = Arrays.asList(new ZipCodeRange("20000,20005"), new ZipCodeRange("1,2"));
+        List<ZipCodeRange> copy = ZipCodeRangeList.fromList(ranges).toList();
+        assertEquals(2, copy.size());
+        assertArrayEquals(new int[] {20000, 20005}, copy.get(0).getRangeArray());
+        assertArrayEquals(new int[] {1, 2}, copy.get(1).getRangeArray());
+    }
+
+    @Test
+    public void forEachAndStream() {
+        ZipCodeRangeList list = new ZipCodeRangeList();
+        list.add(1, 2);
+        list.add(10, 20);
+        int[] total = new int[1];
+        list.forEach((start, end) -> total[0] += end - start + 1);
+        assertEquals(13, total[0]);
+        assertEquals(2, list.stream().count());
+        assertEquals(2, list.toPackedArray().length);
+    }
+
+    @Test
+    public void toStringFormat() {
+        ZipCodeRangeList list = new ZipCodeRangeList();
+        list.add(1, 2);
+        list.add(94133, 94133);
+        assertEquals("ZipCodeRangeList {size: 2, ranges: [[00001,00002], [94133,94133]]}", list.toString());
+    }
+}
@@ -0,0 +1,172 @@
+package com.sc.model;
+
+import com.sc.util.ZipCodeMetrics;
+import com.sc.util.ZipCodeUtils;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.sc.model.ZipCodeRangeFixtures.randomRanges;
+import static org.junit.Assert.*;
+
+public class ZipCodeRangeSetTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @After
+    public void resetMetricsSink() {
+        ZipCodeUtils.setMetricsSink(null);
+    }
+
+    private static void assertRanges(ZipCodeRangeSet set, int[]... expected) {
+        List<ZipCodeRange> ranges = set.toList();
+        assertEquals(expected.length, ranges.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], ranges.get(i).getRangeArray());
+        }
+    }
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void addWithStartTooLarge() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid start value for ZIP code range: 100000");
+        new ZipCodeRangeSet().add(100000, 1);
+    }
+
+    @Test
+    public void containsInvalidZipCode() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code: 9413");
+        new ZipCodeRangeSet().contains("9413");
+    }
+
+    // --------------------------------------------------
+    // Typical usage - add()
+    // --------------------------------------------------
+
+    @Test
+    public void emptySet() {
+        ZipCodeRangeSet set = new ZipCodeRangeSet(null);
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertEquals(0, set.size());
+        assertEquals(0, set.getZipCodeCount());
+        assertEquals("ZipCodeRangeSet {size: 0}", set.toString());
+    }
+
+    @Test
+    public void addRawRanges() {
+        ZipCodeRangeSet set = new ZipCodeRangeSet(Arrays.asList(new ZipCodeRange("94200,94299"),
+            new ZipCodeRange("94133,94133")));
+        set.add(94250, 94350);
+        set.add(new ZipCodeRange("94134,94134"));
+        assertFalse(set.isEmpty());
+        assertRanges(set, new int[] {94133, 94134}, new int[] {94200, 94350});
+        assertTrue(set.contains(94134));
+        assertTrue(set.contains("94300"));
+        assertFalse(set.contains(94135));
+        assertEquals(153, set.getZipCodeCount());
+        assertEquals("ZipCodeRangeSet {size: 2}", set.toString());
+    }
+
+    @Test
+    public void mutationsAreBatchedIntoOneRebuild() {
+        ZipCodeMetrics metrics = new ZipCodeMetrics();
+        ZipCodeUtils.setMetricsSink(metrics);
+        ZipCodeRangeSet set = new ZipCodeRangeSet();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i * 10, i * 10 + 5);
+        }
+        assertEquals(0, metrics.getConsolidationCount());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(set.contains(i * 10));
+        }
+        assertEquals(1, metrics.getConsolidationCount());
+        assertEquals(1000, metrics.getLastConsolidationInputCount());
+
+        set.add(6, 9);
+        set.addAll(Arrays.asList(new ZipCodeRange("00016,00019"), new ZipCodeRange("00026,00029")));
+        assertTrue(set.contains(7));
+        assertEquals(997, set.size());
+        assertEquals(2, metrics.getConsolidationCount());
+    }
+
+    // --------------------------------------------------
+    // Typical usage - remove()
+    // --------------------------------------------------
+
+    @Test
+    public void removeSplitsRanges() {
+        ZipCodeRangeSet set = new ZipCodeRangeSet();
+        set.add(100, 200);
+        set.add(150, 300);
+        set.remove(180, 190);
+        set.add(400, 500);
+        set.remove(new ZipCodeRange("00450,00600"));
+        assertRanges(set, new int[] {100, 179}, new int[] {191, 300}, new int[] {400, 449});
+        assertFalse(set.contains(185));
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(100));
+    }
+
+    @Test
+    public void removalsAreBatchedIntoOneRebuild() {
+        ZipCodeMetrics metrics = new ZipCodeMetrics();
+        ZipCodeUtils.setMetricsSink(metrics);
+        ZipCodeRangeSet set = new ZipCodeRangeSet();
+        set.add(0, 99999);
+        for (int i = 0; i < 1000; i++) {
+            set.remove(i * 10, i * 10 + 4);
+        }
+        // a range added after a removal is not affected by it
+        set.add(0, 4);
+        set.remove(8, 8);
+        assertEquals(0, metrics.getConsolidationCount());
+        assertTrue(set.contains(0));
+        assertFalse(set.contains(10));
+        assertTrue(set.contains(15));
+        assertFalse(set.contains(8));
+        assertEquals(1001, set.size());
+        assertEquals(1, metrics.getConsolidationCount());
+    }
+
+    @Test
+    public void removeEverything() {
+        ZipCodeRangeSet set = new ZipCodeRangeSet();
+        set.add(100, 200);
+        set.remove(0, 99999);
+        assertTrue(set.isEmpty());
+        set.add(300, 400);
+        assertFalse(set.isEmpty());
+        assertRanges(set, new int[] {300, 400});
+    }
+
+    @Test
+    public void matchesConsolidate() {
+        Random random = new Random(25);
+        List<ZipCodeRange> ranges = randomRanges(random, 2000, 100);
+        ZipCodeRangeSet set = new ZipCodeRangeSet();
+        for (ZipCodeRange range : ranges) {
+            set.add(range);
+        }
+        List<ZipCodeRange> consolidated = ZipCodeUtils.consolidate(ranges);
+        assertEquals(consolidated.toString(), set.toList().toString());
+        for (int zipCode = 0; zipCode < 100000; zipCode++) {
+            assertEquals(ZipCodeUtils.isExcluded(zipCode, consolidated), set.contains(zipCode));
+        }
+    }
+}
@@ -211,6 +211,23 @@ public class ZipCodeRangeTest {
     }
 
 
+    // --------------------------------------------------
+    // ZipCodeRange(int, int)
+    // --------------------------------------------------
+
+    @Test
+    public void createZipCodeRangeFromIntsWithStartTooLarge() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid start value for ZIP code range: 100000");
+        new ZipCodeRange(100000, 22222);
+    }
+
+    @Test
+    public void createZipCodeRangeFromIntsReversed() {
+        ZipCodeRange zcr = new ZipCodeRange(33333, 22222);
+        assertEquals("[22222,33333]", zcr.getRangeStr());
+    }
+
     // --------------------------------------------------
     // Typical usage - ZipCodeRange(int[])
     // --------------------------------------------------
@@ -0,0 +1,83 @@
+package com.sc.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.*;
+
+public class ZipPlus4RangeTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void createFromStringWithoutComma() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP+4 code range: [94133-0000]");
+        new ZipPlus4Range("[94133-0000]");
+    }
+
+    @Test
+    public void createFromStringWithBadCode() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP+4 code range: 94133-00x0,94133-0100");
+        new ZipPlus4Range("94133-00x0,94133-0100");
+    }
+
+    @Test
+    public void createFromIntsOutOfRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid end value for ZIP+4 code range: 1000000000");
+        new ZipPlus4Range(0, 1000000000);
+    }
+
+    // --------------------------------------------------
+    // Typical usage
+    // --------------------------------------------------
+
+    @Test
+    public void createFromString() {
+        ZipPlus4Range range = new ZipPlus4Range(" [ 94133-0200 , 941330100 ] ");
+        assertEquals(941330100, range.getStart());
+        assertEquals(941330200, range.getEnd());
+        assertEquals("[94133-0100,94133-0200]", range.getRangeStr());
+    }
+
+    @Test
+    public void createFromFiveDigitString() {
+        ZipPlus4Range range = new ZipPlus4Range("[94133,94135]");
+        assertEquals("[94133-0000,94135-9999]", range.getRangeStr());
+        range = new ZipPlus4Range("00001,00002-0005");
+        assertEquals("[00001-0000,00002-0005]", range.getRangeStr());
+    }
+
+    @Test
+    public void createFromZipCodeRange() {
+        ZipPlus4Range range = ZipPlus4Range.fromZipCodeRange(new ZipCodeRange("99999,99998"));
+        assertEquals(999980000, range.getStart());
+        assertEquals(ZipPlus4Range.MAX_ZIP_PLUS_4, range.getEnd());
+    }
+
+    @Test
+    public void contains() {
+        ZipPlus4Range range = new ZipPlus4Range(941330100, 941330200);
+        assertTrue(range.contains(941330100));
+        assertTrue(range.contains(941330200));
+        assertFalse(range.contains(941330099));
+        assertFalse(range.contains(941330201));
+    }
+
+    @Test
+    public void format() {
+        assertEquals("00000-0000", ZipPlus4Range.format(0));
+        assertEquals("12345-6789", ZipPlus4Range.format(123456789));
+    }
+}
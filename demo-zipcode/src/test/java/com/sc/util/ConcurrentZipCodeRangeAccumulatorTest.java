@@ -0,0 +1,169 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.sc.model.ZipCodeRangeFixtures.randomRanges;
+import static org.junit.Assert.*;
+
+public class ConcurrentZipCodeRangeAccumulatorTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void addInvalidRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid start value for ZIP code range: -1");
+        new ConcurrentZipCodeRangeAccumulator().add(-1, 10);
+    }
+
+    // --------------------------------------------------
+    // Typical usage
+    // --------------------------------------------------
+
+    @Test
+    public void oneBufferPerThread() throws Exception {
+        ConcurrentZipCodeRangeAccumulator accumulator = new ConcurrentZipCodeRangeAccumulator();
+        accumulator.add(100, 200);
+        accumulator.add(300, 400);
+        assertEquals(1, accumulator.getBufferCount());
+
+        Thread producer = new Thread(() -> accumulator.add(500, 600));
+        producer.start();
+        producer.join();
+        assertEquals(2, accumulator.getBufferCount());
+
+        // the terminated producer's buffer is unregistered once its ranges have been drained
+        assertEquals(3, accumulator.drainAndConsolidate().size());
+        assertEquals(1, accumulator.getBufferCount());
+    }
+
+    @Test
+    public void lastRangeOfTerminatedThreadIsDrained() throws Exception {
+        ConcurrentZipCodeRangeAccumulator accumulator = new ConcurrentZipCodeRangeAccumulator();
+        CountDownLatch drained = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            accumulator.add(100, 200);
+            try {
+                drained.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            accumulator.add(300, 400);
+        });
+        producer.start();
+        while (accumulator.getPendingCount() == 0) {
+            Thread.yield();
+        }
+        assertEquals("ZipCodeRangeList {size: 1, ranges: [[00100,00200]]}",
+            accumulator.drainAndConsolidate().toString());
+        // the producer adds its last range between the drains and ends
+        drained.countDown();
+        producer.join();
+        assertEquals("ZipCodeRangeList {size: 1, ranges: [[00300,00400]]}",
+            accumulator.drainAndConsolidate().toString());
+        assertEquals(0, accumulator.getBufferCount());
+
+        // race drains against producers that add their last range and end, then drain whatever is left
+        for (int i = 0; i < 200; i++) {
+            int zipCode = i;
+            Thread lastAdd = new Thread(() -> {
+                accumulator.add(zipCode, zipCode);
+                accumulator.add(zipCode, zipCode);
+            });
+            lastAdd.start();
+            ZipCodeRangeList ranges = accumulator.drainAndConsolidate();
+            lastAdd.join();
+            ranges.addAll(accumulator.drainAndConsolidate());
+            ranges.addAll(accumulator.drainAndConsolidate());
+            assertEquals("Iteration " + i, 1, ranges.consolidate().size());
+        }
+        assertEquals(0, accumulator.getBufferCount());
+    }
+
+    @Test
+    public void drainConsolidatesAndEmpties() {
+        ConcurrentZipCodeRangeAccumulator accumulator = new ConcurrentZipCodeRangeAccumulator();
+        accumulator.add(200, 100);
+        accumulator.add(new ZipCodeRange("150,250"));
+        accumulator.addAll(Arrays.asList(new ZipCodeRange("251,300"), new ZipCodeRange("500,600")));
+        accumulator.addAll(null);
+        assertEquals(4, accumulator.getPendingCount());
+
+        ZipCodeRangeList drained = accumulator.drainAndConsolidate();
+        assertEquals("ZipCodeRangeList {size: 2, ranges: [[00100,00300], [00500,00600]]}", drained.toString());
+        assertEquals(0, accumulator.getPendingCount());
+        assertTrue(accumulator.drainAndConsolidate().isEmpty());
+    }
+
+    @Test
+    public void largeStripesAreCompacted() {
+        ConcurrentZipCodeRangeAccumulator accumulator = new ConcurrentZipCodeRangeAccumulator();
+        for (int i = 0; i < 200000; i++) {
+            accumulator.add(94133, 94133);
+        }
+        assertTrue(accumulator.getPendingCount() < 100000);
+        assertEquals(Collections.singletonList(new ZipCodeRange(94133, 94133)).toString(),
+            accumulator.drainAndConsolidate().toList().toString());
+    }
+
+    @Test
+    public void concurrentProducersWithDrains() throws Exception {
+        int producers = 8;
+        ConcurrentZipCodeRangeAccumulator accumulator = new ConcurrentZipCodeRangeAccumulator();
+        List<ZipCodeRange> all = new ArrayList<>();
+        List<List<ZipCodeRange>> inputs = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            inputs.add(randomRanges(new Random(i), 50000, 10));
+            all.addAll(inputs.get(i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<ZipCodeRange> input : inputs) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (ZipCodeRange range : input) {
+                    accumulator.add(range);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        // drain while the producers are running; every range must end up in exactly one drain
+        ZipCodeRangeList drained = new ZipCodeRangeList();
+        for (int i = 0; i < 20; i++) {
+            drained.addAll(accumulator.drainAndConsolidate());
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        drained.addAll(accumulator.drainAndConsolidate());
+        assertEquals(ZipCodeUtils.consolidate(all).toString(), drained.consolidate().toList().toString());
+    }
+}
@@ -0,0 +1,119 @@
+package com.sc.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ExclusionFileWatcherTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void awaitVersion(ExclusionRegistry registry, long version) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 20000;
+        while (registry.getSnapshot().getVersion() < version && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(version, registry.getSnapshot().getVersion());
+    }
+
+    private static void awaitFailedReloads(ExclusionFileWatcher watcher, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 20000;
+        while (watcher.getFailedReloadCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, watcher.getFailedReloadCount());
+    }
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void watchFileInMissingDirectory() throws IOException {
+        thrown.expect(NoSuchFileException.class);
+        Path file = folder.getRoot().toPath().resolve("missing").resolve("exclude.txt");
+        new ExclusionFileWatcher(file, new ExclusionRegistry());
+    }
+
+    // --------------------------------------------------
+    // Typical usage
+    // --------------------------------------------------
+
+    @Test
+    public void startLoadsFile() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("exclude.txt");
+        write(file, "[94600,94699]\n[94133,94133]\n");
+        try (ExclusionRegistry registry = new ExclusionRegistry();
+             ExclusionFileWatcher watcher = new ExclusionFileWatcher(file, registry)) {
+            ExclusionRegistry.Snapshot snapshot = watcher.start();
+            assertEquals(1, snapshot.getVersion());
+            assertEquals(2, snapshot.getRangeCount());
+            assertTrue(registry.isExcluded(94650));
+        }
+    }
+
+    @Test
+    public void reloadsWhenFileChanges() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("exclude.txt");
+        write(file, "[10000,10099]\n");
+        try (ExclusionRegistry registry = new ExclusionRegistry();
+             ExclusionFileWatcher watcher = new ExclusionFileWatcher(file, registry,
+                 new ZipCodeRangeFileLoader(ForkJoinPool.commonPool(), 1024), 50)) {
+            watcher.start();
+            assertFalse(registry.isExcluded(20000));
+
+            write(file, "[10000,10099]\n[20000,20099]\n");
+            awaitVersion(registry, 2);
+            assertTrue(registry.isExcluded(20000));
+
+            // replace the file with an atomic rename
+            Path temp = folder.getRoot().toPath().resolve("exclude.tmp");
+            write(temp, "[30000,30099]\n");
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            awaitVersion(registry, 3);
+            assertFalse(registry.isExcluded(10000));
+            assertTrue(registry.isExcluded(30000));
+        }
+    }
+
+    @Test
+    public void keepsSnapshotWhenReloadFails() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("exclude.txt");
+        write(file, "[10000,10099]\n");
+        try (ExclusionRegistry registry = new ExclusionRegistry();
+             ExclusionFileWatcher watcher = new ExclusionFileWatcher(file, registry,
+                 new ZipCodeRangeFileLoader(), 50)) {
+            watcher.start();
+            write(file, "not a range\n");
+            awaitFailedReloads(watcher, 1);
+            assertEquals(1, registry.getSnapshot().getVersion());
+            assertTrue(registry.isExcluded(10000));
+
+            write(file, "[40000,40099]\n");
+            awaitVersion(registry, 2);
+            assertTrue(registry.isExcluded(40000));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class ExclusionRegistryTest {
+
+    // --------------------------------------------------
+    // Typical usage - publish()
+    // --------------------------------------------------
+
+    @Test
+    public void initialSnapshotIsEmpty() {
+        try (ExclusionRegistry registry = new ExclusionRegistry()) {
+            ExclusionRegistry.Snapshot snapshot = registry.getSnapshot();
+            assertEquals(0, snapshot.getVersion());
+            assertEquals(0, snapshot.getRangeCount());
+            assertFalse(registry.isExcluded(11111));
+        }
+    }
+
+    @Test
+    public void publishConsolidatesAndIncrementsVersion() {
+        try (ExclusionRegistry registry = new ExclusionRegistry()) {
+            ExclusionRegistry.Snapshot first = registry.publish(Arrays.asList(
+                new ZipCodeRange("10000,10099"), new ZipCodeRange("10100,10199"), new ZipCodeRange("20000,20000")));
+            assertEquals(1, first.getVersion());
+            assertEquals(2, first.getRangeCount());
+            assertTrue(registry.isExcluded(10150));
+
+            ExclusionRegistry.Snapshot second = registry.publish(null);
+            assertEquals(2, second.getVersion());
+            assertSame(second, registry.getSnapshot());
+            assertFalse(registry.isExcluded(10150));
+            assertFalse(second.getBuildTimestamp().isBefore(first.getBuildTimestamp()));
+            // the old snapshot is unchanged
+            assertTrue(first.isExcluded(10150));
+        }
+    }
+
+    @Test
+    public void snapshotRangesAreCopies() {
+        try (ExclusionRegistry registry = new ExclusionRegistry()) {
+            ExclusionRegistry.Snapshot snapshot = registry.publish(Collections.singletonList(new ZipCodeRange("1,5")));
+            List<ZipCodeRange> ranges = snapshot.getRanges();
+            ranges.get(0).merge(new ZipCodeRange("6,10"));
+            assertArrayEquals(new int[] {1, 5}, snapshot.getRanges().get(0).getRangeArray());
+            assertFalse(snapshot.isExcluded(6));
+        }
+    }
+
+    // --------------------------------------------------
+    // Typical usage - rebuildAsync()
+    // --------------------------------------------------
+
+    @Test
+    public void rebuildAsyncPublishes() throws Exception {
+        try (ExclusionRegistry registry = new ExclusionRegistry()) {
+            ExclusionRegistry.Snapshot snapshot = registry
+                .rebuildAsync(() -> Collections.singletonList(new ZipCodeRange("94133,94133")))
+                .get(10, TimeUnit.SECONDS);
+            assertEquals(1, snapshot.getVersion());
+            assertTrue(registry.isExcluded(94133));
+        }
+    }
+
+    @Test
+    public void rebuildAsyncFailureKeepsCurrentSnapshot() {
+        try (ExclusionRegistry registry = new ExclusionRegistry()) {
+            registry.publish(Collections.singletonList(new ZipCodeRange("1,5")));
+            try {
+                registry.rebuildAsync(() -> Collections.singletonList(new ZipCodeRange("bad"))).join();
+                fail("Expected the rebuild to fail");
+            }
+            catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+            assertEquals(1, registry.getSnapshot().getVersion());
+            assertTrue(registry.isExcluded(3));
+        }
+    }
+
+    @Test
+    public void readersNeverSeeHalfBuiltSnapshot() throws Exception {
+        try (ExclusionRegistry registry = new ExclusionRegistry()) {
+            // every published set excludes exactly [10000,19999] or [50000,59999], never both or neither
+            List<ZipCodeRange> setA = Collections.singletonList(new ZipCodeRange("10000,19999"));
+            List<ZipCodeRange> setB = Collections.singletonList(new ZipCodeRange("50000,59999"));
+            registry.publish(setA);
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicReference<String> failure = new AtomicReference<>();
+            Thread reader = new Thread(() -> {
+                while (!done.get()) {
+                    ExclusionRegistry.Snapshot snapshot = registry.getSnapshot();
+                    if (snapshot.isExcluded(15000) == snapshot.isExcluded(55000)) {
+                        failure.set("Inconsistent snapshot: " + snapshot);
+                    }
+                }
+            });
+            reader.start();
+            for (int i = 0; i < 200; i++) {
+                registry.rebuildAsync(() -> setB).join();
+                registry.rebuildAsync(() -> setA).join();
+            }
+            done.set(true);
+            reader.join();
+            assertNull(failure.get());
+            assertEquals(401, registry.getSnapshot().getVersion());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Random;
+import javax.sql.DataSource;
+
+import static com.sc.model.ZipCodeRangeFixtures.randomRanges;
+import static org.junit.Assert.*;
+
+public class JdbcZipCodeRangeSourceTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private JdbcDataSource dataSource;
+    private Connection keepAlive;
+
+    @Before
+    public void createDatabase() throws SQLException {
+        this.dataSource = new JdbcDataSource();
+        this.dataSource.setURL("jdbc:h2:mem:zipcodes;DB_CLOSE_DELAY=0");
+        // the in-memory database lives as long as at least one connection is open
+        this.keepAlive = this.dataSource.getConnection();
+        try (Statement statement = this.keepAlive.createStatement()) {
+            statement.execute("CREATE TABLE excluded_zip_range (id INT PRIMARY KEY, start_zip INT, end_zip INT, " +
+                "range_text VARCHAR(32))");
+        }
+    }
+
+    @After
+    public void dropDatabase() throws SQLException {
+        this.keepAlive.close();
+    }
+
+    private void insert(List<ZipCodeRange> ranges) throws SQLException {
+        try (PreparedStatement statement = this.keepAlive.prepareStatement(
+                "INSERT INTO excluded_zip_range VALUES (?, ?, ?, ?)")) {
+            int id = 0;
+            for (ZipCodeRange range : ranges) {
+                statement.setInt(1, id++);
+                // reversed, as the order of the values is unimportant
+                statement.setInt(2, range.getEnd());
+                statement.setInt(3, range.getStart());
+                statement.setString(4, range.getRangeStr());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private Connection sharedConnection() {
+        // the kept-alive connection, behind a proxy whose close() does nothing
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName())) {
+                    return null;
+                }
+                try {
+                    return method.invoke(this.keepAlive, args);
+                }
+                catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void createWithZeroFetchSize() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid fetch size: 0");
+        new JdbcZipCodeRangeSource(this.dataSource, "SELECT 1", 0);
+    }
+
+    @Test
+    public void loadNullRange() throws SQLException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code range at row 2: null");
+        try (Statement statement = this.keepAlive.createStatement()) {
+            statement.execute("INSERT INTO excluded_zip_range VALUES (1, 10, 20, NULL), (2, 30, NULL, NULL)");
+        }
+        new JdbcZipCodeRangeSource(this.dataSource,
+            "SELECT start_zip, end_zip FROM excluded_zip_range ORDER BY id").load();
+    }
+
+    @Test
+    public void loadMalformedRange() throws SQLException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code range at row 2: 30000 - 30099");
+        try (Statement statement = this.keepAlive.createStatement()) {
+            statement.execute("INSERT INTO excluded_zip_range VALUES (1, 10, 20, '[10000,10099]'), " +
+                "(2, 30, 40, '30000 - 30099')");
+        }
+        new JdbcZipCodeRangeSource(this.dataSource, "SELECT range_text FROM excluded_zip_range ORDER BY id").load();
+    }
+
+    @Test
+    public void loadOutOfRangeValue() throws SQLException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code range at row 1: 100000,5");
+        try (Statement statement = this.keepAlive.createStatement()) {
+            statement.execute("INSERT INTO excluded_zip_range VALUES (1, 100000, 5, NULL)");
+        }
+        new JdbcZipCodeRangeSource(this.dataSource, "SELECT start_zip, end_zip FROM excluded_zip_range").load();
+    }
+
+    @Test
+    public void failedLoadRestoresAutoCommit() throws SQLException {
+        try (Statement statement = this.keepAlive.createStatement()) {
+            statement.execute("INSERT INTO excluded_zip_range VALUES (1, 10, NULL, NULL)");
+        }
+        // hand out the same connection every time, as a pool would
+        DataSource pooled = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {DataSource.class}, (proxy, method, args) -> sharedConnection());
+        try {
+            new JdbcZipCodeRangeSource(pooled, "SELECT start_zip, end_zip FROM excluded_zip_range").load();
+            fail("Expected an IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e) {
+            assertEquals("Invalid ZIP code range at row 1: null", e.getMessage());
+        }
+        assertTrue(this.keepAlive.getAutoCommit());
+    }
+
+    @Test
+    public void loadBadQuery() throws SQLException {
+        thrown.expect(SQLException.class);
+        new JdbcZipCodeRangeSource(this.dataSource, "SELECT nothing FROM nowhere").load();
+    }
+
+    // --------------------------------------------------
+    // Typical usage
+    // --------------------------------------------------
+
+    @Test
+    public void loadEmpty() throws SQLException {
+        JdbcZipCodeRangeSource.Result result = new JdbcZipCodeRangeSource(this.dataSource,
+            "SELECT start_zip, end_zip FROM excluded_zip_range").load();
+        assertEquals(0, result.getRowCount());
+        assertTrue(result.getRanges().isEmpty());
+    }
+
+    @Test
+    public void loadMatchesConsolidate() throws SQLException {
+        Random random = new Random(18);
+        List<ZipCodeRange> ranges = randomRanges(random, 20000, 20);
+        insert(ranges);
+        String expected = ZipCodeUtils.consolidate(ranges).toString();
+
+        // a small fetch size forces many intermediate consolidations
+        JdbcZipCodeRangeSource.Result result = new JdbcZipCodeRangeSource(this.dataSource,
+            "SELECT start_zip, end_zip FROM excluded_zip_range", 100).load();
+        assertEquals(20000, result.getRowCount());
+        assertEquals(expected, result.getRanges().toString());
+
+        result = new JdbcZipCodeRangeSource(this.dataSource, "SELECT range_text FROM excluded_zip_range").load();
+        assertEquals(expected, result.getRanges().toString());
+        assertTrue(result.toString().startsWith("Loaded 20,000 rows ("));
+    }
+}
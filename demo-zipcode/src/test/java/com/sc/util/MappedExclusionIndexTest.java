@@ -0,0 +1,123 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static com.sc.model.ZipCodeRangeFixtures.ranges;
+import static org.junit.Assert.*;
+
+public class MappedExclusionIndexTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void openInvalidFile() throws IOException {
+        thrown.expect(IOException.class);
+        thrown.expectMessage("Invalid exclusion index size: 5 bytes");
+        Path file = folder.newFile("index.bin").toPath();
+        Files.write(file, "hello".getBytes("US-ASCII"));
+        new MappedExclusionIndex(file);
+    }
+
+    @Test
+    public void openCorruptFile() throws IOException {
+        thrown.expect(IOException.class);
+        thrown.expectMessage("Exclusion index count mismatch: expected 1, found 2");
+        Path file = folder.getRoot().toPath().resolve("index.bin");
+        MappedExclusionIndex.write(ranges("00000,00000"), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] = 1;
+        Files.write(file, bytes);
+        new MappedExclusionIndex(file);
+    }
+
+    @Test
+    public void isExcludedWithInvalidZipCode() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code: -1");
+        Path file = folder.getRoot().toPath().resolve("index.bin");
+        MappedExclusionIndex.write(Collections.emptyList(), file);
+        new MappedExclusionIndex(file).isExcluded(-1);
+    }
+
+    // --------------------------------------------------
+    // Typical usage
+    // --------------------------------------------------
+
+    @Test
+    public void writeAndMap() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("index.bin");
+        List<ZipCodeRange> ranges = ranges("94133,94133", "94200,94299", "00000,00063", "99990,99999");
+        MappedExclusionIndex.write(ranges, file);
+        MappedExclusionIndex index = new MappedExclusionIndex(file);
+        ZipCodeExclusionIndex expected = new ZipCodeExclusionIndex(ranges);
+        for (int zipCode = 0; zipCode < 100000; zipCode++) {
+            assertEquals(expected.isExcluded(zipCode), index.isExcluded(zipCode));
+        }
+        assertTrue(index.isExcluded("94133"));
+        assertEquals(expected.getExcludedCount(), index.getExcludedCount());
+        assertEquals("MappedExclusionIndex {file: " + file + ", excluded: 175, generation: 1}", index.toString());
+        // no temporary files are left behind
+        File[] files = folder.getRoot().listFiles();
+        assertNotNull(files);
+        assertEquals(1, files.length);
+    }
+
+    @Test
+    public void refreshRemapsReplacedFile() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("index.bin");
+        MappedExclusionIndex.write(ranges("94133,94133"), file);
+        MappedExclusionIndex index = new MappedExclusionIndex(file, 60 * 60 * 1000L);
+        assertFalse(index.refresh());
+
+        MappedExclusionIndex.write(ranges("94000,94099"), file);
+        // the check interval has not elapsed, so the old version is still mapped
+        assertTrue(index.isExcluded(94133));
+        assertTrue(index.refresh());
+        assertFalse(index.isExcluded(94133));
+        assertTrue(index.isExcluded(94050));
+        assertEquals(100, index.getExcludedCount());
+        assertEquals(2, index.getGeneration());
+    }
+
+    @Test
+    public void lookupsRemapWhenIntervalElapsed() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("index.bin");
+        MappedExclusionIndex.write(ranges("94133,94133"), file);
+        MappedExclusionIndex index = new MappedExclusionIndex(file, 0);
+        MappedExclusionIndex.write(ranges("10000,10000"), file);
+        assertFalse(index.isExcluded(94133));
+        assertTrue(index.isExcluded(10000));
+    }
+
+    @Test
+    public void failedRemapKeepsPreviousVersion() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("index.bin");
+        MappedExclusionIndex.write(ranges("94133,94133"), file);
+        MappedExclusionIndex index = new MappedExclusionIndex(file, 0);
+        Files.delete(file);
+        assertTrue(index.isExcluded(94133));
+    }
+}
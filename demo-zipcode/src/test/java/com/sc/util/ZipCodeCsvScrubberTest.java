@@ -0,0 +1,119 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ZipCodeCsvScrubberTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final ZipCodeExclusionIndex INDEX = new ZipCodeExclusionIndex(Arrays.asList(
+        new ZipCodeRange("94133,94133"), new ZipCodeRange("94200,94299")));
+
+    private Path file(String name, String content) throws IOException {
+        Path file = this.folder.getRoot().toPath().resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+    }
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void createWithNegativeColumn() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid column: -1");
+        new ZipCodeCsvScrubber(INDEX, -1, false);
+    }
+
+    @Test
+    public void createWithZeroChunkSize() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid chunk size: 0");
+        new ZipCodeCsvScrubber(INDEX, 0, false, ForkJoinPool.commonPool(), 0);
+    }
+
+    // --------------------------------------------------
+    // Typical usage
+    // --------------------------------------------------
+
+    @Test
+    public void scrubWithHeaderAndQuotes() throws IOException {
+        Path input = file("customers.csv", "id,name,zip\r\n" +
+            "1,\"Smith, John\",94133\r\n" +
+            "2,\"O\"\"Brien, \"\"Pat\"\"\",\"94134\"\r\n" +
+            "3,Lee, 94250-0001 \r\n" +
+            "\r\n" +
+            "4,Kim\r\n" +
+            "5,\"Doe\",\" 10001 \"");
+        Path kept = folder.getRoot().toPath().resolve("kept.csv");
+        Path dropped = file("dropped.csv", "old content that must be replaced\n");
+        ZipCodeCsvScrubber.Result result = new ZipCodeCsvScrubber(INDEX, 2, true).scrub(input, kept, dropped);
+
+        assertEquals("id,name,zip\r\n2,\"O\"\"Brien, \"\"Pat\"\"\",\"94134\"\r\n5,\"Doe\",\" 10001 \"", read(kept));
+        assertEquals("id,name,zip\r\n1,\"Smith, John\",94133\r\n3,Lee, 94250-0001 \r\n4,Kim\r\n", read(dropped));
+        assertEquals(5, result.getRowCount());
+        assertEquals(2, result.getKeptCount());
+        assertEquals(2, result.getExcludedCount());
+        assertEquals(1, result.getInvalidCount());
+        assertTrue(result.toString().startsWith("Scrubbed 5 rows (2 kept, 2 excluded, 1 invalid)"));
+    }
+
+    @Test
+    public void scrubHeaderOnly() throws IOException {
+        Path input = file("header.csv", "id,zip");
+        Path kept = folder.getRoot().toPath().resolve("kept.csv");
+        Path dropped = folder.getRoot().toPath().resolve("dropped.csv");
+        ZipCodeCsvScrubber.Result result = new ZipCodeCsvScrubber(INDEX, 1, true).scrub(input, kept, dropped);
+        assertEquals("id,zip", read(kept));
+        assertEquals("id,zip", read(dropped));
+        assertEquals(0, result.getRowCount());
+    }
+
+    @Test
+    public void scrubManyChunksPreservesOrder() throws IOException {
+        Random random = new Random(17);
+        StringBuilder input = new StringBuilder("zip,id\n");
+        StringBuilder expectedKept = new StringBuilder("zip,id\n");
+        StringBuilder expectedDropped = new StringBuilder("zip,id\n");
+        for (int i = 0; i < 20000; i++) {
+            int zipCode = 94100 + random.nextInt(300);
+            String row = String.format("%05d,%d\n", zipCode, i);
+            input.append(row);
+            (INDEX.isExcluded(zipCode) ? expectedDropped : expectedKept).append(row);
+        }
+        Path kept = folder.getRoot().toPath().resolve("kept.csv");
+        Path dropped = folder.getRoot().toPath().resolve("dropped.csv");
+        // small chunks on a small pool, so that many chunks are in flight and must be reordered
+        ZipCodeCsvScrubber.Result result = new ZipCodeCsvScrubber(INDEX, 0, true, new ForkJoinPool(3), 1000)
+            .scrub(file("zips.csv", input.toString()), kept, dropped);
+        assertEquals(expectedKept.toString(), read(kept));
+        assertEquals(expectedDropped.toString(), read(dropped));
+        assertEquals(20000, result.getRowCount());
+    }
+}
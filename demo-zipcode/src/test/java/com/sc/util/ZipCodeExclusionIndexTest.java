@@ -0,0 +1,177 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static com.sc.model.ZipCodeRangeFixtures.randomRanges;
+import static org.junit.Assert.*;
+
+public class ZipCodeExclusionIndexTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    // --------------------------------------------------
+    // Exceptions - isExcluded(int)
+    // --------------------------------------------------
+
+    @Test
+    public void checkIfNegativeIntExcluded() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(containsString("Invalid ZIP code: -1"));
+        new ZipCodeExclusionIndex(null).isExcluded(-1);
+    }
+
+    @Test
+    public void checkIfBadIntExcluded() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(containsString("Invalid ZIP code: 100000"));
+        new ZipCodeExclusionIndex(null).isExcluded(100000);
+    }
+
+    // --------------------------------------------------
+    // Typical usage - isExcluded(int)
+    // --------------------------------------------------
+
+    @Test
+    public void checkIfExcludedNullRange() {
+        ZipCodeExclusionIndex index = new ZipCodeExclusionIndex(null);
+        assertFalse(index.isExcluded(11111));
+        assertEquals(0, index.getExcludedCount());
+    }
+
+    @Test
+    public void checkIfExcludedBoundaries() {
+        ZipCodeRange zcr1 = new ZipCodeRange("10000, 19999");
+        ZipCodeRange zcr2 = new ZipCodeRange("20001, 29999");
+        ZipCodeExclusionIndex index = new ZipCodeExclusionIndex(Arrays.asList(zcr1, zcr2));
+        assertFalse(index.isExcluded(9999));
+        assertTrue(index.isExcluded(10000));
+        assertTrue(index.isExcluded(19999));
+        assertFalse(index.isExcluded(20000));
+        assertTrue(index.isExcluded(20001));
+        assertTrue(index.isExcluded(29999));
+        assertFalse(index.isExcluded(30000));
+        assertEquals(19999, index.getExcludedCount());
+    }
+
+    @Test
+    public void checkIfExcludedFullRange() {
+        ZipCodeExclusionIndex index = new ZipCodeExclusionIndex(Arrays.asList(new ZipCodeRange("0,99999")));
+        assertTrue(index.isExcluded(0));
+        assertTrue(index.isExcluded(99999));
+        assertEquals(100000, index.getExcludedCount());
+    }
+
+    @Test
+    public void checkIfExcludedSingleWord() {
+        ZipCodeExclusionIndex index = new ZipCodeExclusionIndex(Arrays.asList(new ZipCodeRange("65,70")));
+        assertFalse(index.isExcluded(64));
+        assertTrue(index.isExcluded(65));
+        assertTrue(index.isExcluded(70));
+        assertFalse(index.isExcluded(71));
+        assertEquals(6, index.getExcludedCount());
+    }
+
+    @Test
+    public void checkIfExcludedMatchesLinearScan() {
+        Random random = new Random(42);
+        List<ZipCodeRange> ranges = randomRanges(random, 200, 500);
+        ZipCodeExclusionIndex index = new ZipCodeExclusionIndex(ZipCodeUtils.consolidate(ranges));
+        for (int zipCode = 0; zipCode <= 99999; zipCode++) {
+            assertEquals(ZipCodeUtils.isExcluded(zipCode, ranges), index.isExcluded(zipCode));
+        }
+    }
+
+    @Test
+    public void checkIfExcludedFromRangeList() {
+        ZipCodeRangeList list = new ZipCodeRangeList();
+        list.add(10000, 19999);
+        list.add(15000, 20000);
+        ZipCodeExclusionIndex index = ZipCodeExclusionIndex.fromRangeList(list);
+        assertFalse(index.isExcluded(9999));
+        assertTrue(index.isExcluded(20000));
+        assertFalse(index.isExcluded(20001));
+        assertEquals(10001, index.getExcludedCount());
+    }
+
+    // --------------------------------------------------
+    // Exceptions - isExcluded(batch)
+    // --------------------------------------------------
+
+    @Test
+    public void checkIfBatchWithBadIntExcluded() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code: 123456");
+        new ZipCodeExclusionIndex(null).isExcludedBatch(new int[] {10000, 123456, 20000});
+    }
+
+    @Test
+    public void checkIfBatchWithNegativeIntExcluded() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code: -2147483648");
+        new ZipCodeExclusionIndex(null).isExcludedBatch(new int[] {Integer.MIN_VALUE});
+    }
+
+    @Test
+    public void checkIfBatchWithBadStringExcluded() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code: 1234a");
+        new ZipCodeExclusionIndex(null).isExcludedBatch(new String[] {"12345", "1234a"});
+    }
+
+    // --------------------------------------------------
+    // Typical usage - isExcluded(batch)
+    // --------------------------------------------------
+
+    @Test
+    public void checkIfIntBatchExcluded() {
+        ZipCodeExclusionIndex index = new ZipCodeExclusionIndex(Arrays.asList(new ZipCodeRange("10000, 19999")));
+        boolean[] result = index.isExcludedBatch(new int[] {9999, 10000, 19999, 20000});
+        assertArrayEquals(new boolean[] {false, true, true, false}, result);
+    }
+
+    @Test
+    public void checkIfStringBatchExcluded() {
+        ZipCodeExclusionIndex index = new ZipCodeExclusionIndex(Arrays.asList(new ZipCodeRange("00000, 00500")));
+        boolean[] result = index.isExcludedBatch(new String[] {"00100", null, "00501"});
+        assertArrayEquals(new boolean[] {true, false, false}, result);
+    }
+
+    @Test
+    public void checkIfStreamBatchExcluded() {
+        ZipCodeExclusionIndex index = new ZipCodeExclusionIndex(Arrays.asList(new ZipCodeRange("100, 199")));
+        BitSet result = index.isExcludedBatch(IntStream.of(99, 100, 150, 200, 199));
+        assertEquals(3, result.cardinality());
+        assertTrue(result.get(1));
+        assertTrue(result.get(2));
+        assertTrue(result.get(4));
+    }
+
+    @Test
+    public void checkIfParallelBatchMatchesSequential() {
+        ZipCodeExclusionIndex index = new ZipCodeExclusionIndex(Arrays.asList(
+            new ZipCodeRange("10000, 19999"), new ZipCodeRange("50000, 50063")));
+        int[] zipCodes = new Random(3).ints(300000, 0, 100000).toArray();
+        boolean[] sequential = index.isExcludedBatch(zipCodes);
+        assertArrayEquals(sequential, index.isExcludedBatch(zipCodes, true));
+        BitSet stream = index.isExcludedBatch(Arrays.stream(zipCodes).parallel());
+        for (int i = 0; i < zipCodes.length; i++) {
+            assertEquals(sequential[i], index.isExcluded(zipCodes[i]));
+            assertEquals(sequential[i], stream.get(i));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.*;
+
+public class ZipCodeMetricsTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    private static final List<ZipCodeRange> RANGES = Arrays.asList(
+        new ZipCodeRange("94133,94133"), new ZipCodeRange("94200,94299"), new ZipCodeRange("94250,94350"));
+
+    @After
+    public void restoreSink() {
+        ZipCodeUtils.setMetricsSink(null);
+    }
+
+    // --------------------------------------------------
+    // Typical usage - recording
+    // --------------------------------------------------
+
+    @Test
+    public void recordLookups() {
+        ZipCodeMetrics metrics = new ZipCodeMetrics();
+        metrics.recordLookup(true);
+        metrics.recordLookup(false);
+        metrics.recordLookup(false);
+        metrics.recordLookup(true);
+        metrics.recordLookupLatency(0);
+        metrics.recordLookupLatency(1);
+        metrics.recordLookupLatency(100);
+        metrics.recordLookupLatency(1000);
+        assertEquals(4, metrics.getLookupCount());
+        assertEquals(2, metrics.getHitCount());
+        assertEquals(2, metrics.getMissCount());
+        assertEquals(0.5, metrics.getHitRatio(), 0.0);
+
+        long[] histogram = metrics.getLookupLatencyHistogram();
+        assertEquals(2, histogram[0]);
+        assertEquals(1, histogram[6]);
+        assertEquals(1, histogram[9]);
+        assertEquals(1, metrics.getLookupLatencyP50Nanos());
+        assertEquals(1023, metrics.getLookupLatencyP99Nanos());
+    }
+
+    @Test
+    public void recordConsolidations() {
+        ZipCodeMetrics metrics = new ZipCodeMetrics();
+        metrics.recordConsolidation(10, 4, 500);
+        metrics.recordConsolidation(20, 3, 700);
+        metrics.recordIndexSize(12504);
+        assertEquals(2, metrics.getConsolidationCount());
+        assertEquals(1200, metrics.getConsolidationTotalNanos());
+        assertEquals(700, metrics.getLastConsolidationNanos());
+        assertEquals(20, metrics.getLastConsolidationInputCount());
+        assertEquals(3, metrics.getLastConsolidationOutputCount());
+        assertEquals(12504, metrics.getIndexSizeBytes());
+    }
+
+    @Test
+    public void reset() {
+        ZipCodeMetrics metrics = new ZipCodeMetrics();
+        metrics.recordLookup(true);
+        metrics.recordLookupLatency(10);
+        metrics.recordConsolidation(10, 4, 500);
+        metrics.reset();
+        assertEquals(0, metrics.getLookupCount());
+        assertEquals(0.0, metrics.getHitRatio(), 0.0);
+        assertEquals(0, metrics.getLookupLatencyP99Nanos());
+        assertEquals(0, metrics.getLastConsolidationInputCount());
+    }
+
+    // --------------------------------------------------
+    // Typical usage - instrumented code
+    // --------------------------------------------------
+
+    @Test
+    public void zipCodeUtilsReportsToSink() {
+        ZipCodeMetrics metrics = new ZipCodeMetrics();
+        ZipCodeUtils.setMetricsSink(metrics);
+        assertSame(metrics, ZipCodeUtils.getMetricsSink());
+
+        List<ZipCodeRange> consolidated = ZipCodeUtils.consolidate(RANGES);
+        assertTrue(ZipCodeUtils.isExcluded("94133", consolidated));
+        assertFalse(ZipCodeUtils.isExcluded(94134, consolidated));
+        assertEquals(2, metrics.getLookupCount());
+        assertEquals(1, metrics.getHitCount());
+        assertEquals(1, metrics.getConsolidationCount());
+        assertEquals(3, metrics.getLastConsolidationInputCount());
+        assertEquals(2, metrics.getLastConsolidationOutputCount());
+
+        ZipCodeUtils.setMetricsSink(null);
+        assertSame(ZipCodeMetricsSink.NO_OP, ZipCodeUtils.getMetricsSink());
+        ZipCodeUtils.isExcluded(94134, consolidated);
+        assertEquals(2, metrics.getLookupCount());
+    }
+
+    @Test
+    public void onlySampledLookupsAreTimed() {
+        ZipCodeMetrics metrics = new ZipCodeMetrics();
+        ZipCodeUtils.setMetricsSink(metrics);
+        List<ZipCodeRange> consolidated = ZipCodeUtils.consolidate(RANGES);
+        int lookups = 1 << 16;
+        for (int i = 0; i < lookups; i++) {
+            ZipCodeUtils.isExcluded(94133, consolidated);
+        }
+        long timed = 0;
+        for (long count : metrics.getLookupLatencyHistogram()) {
+            timed += count;
+        }
+        assertEquals(lookups, metrics.getLookupCount());
+        // about 64 expected; the bounds only fail if sampling is broken
+        assertTrue(timed > 0 && timed < lookups / 64);
+    }
+
+    @Test
+    public void registryReportsToSink() {
+        ZipCodeMetrics metrics = new ZipCodeMetrics();
+        try (ExclusionRegistry registry = new ExclusionRegistry(metrics)) {
+            registry.publish(RANGES);
+            assertTrue(registry.isExcluded(94300));
+            assertEquals(1, metrics.getLookupCount());
+            assertEquals(1, metrics.getConsolidationCount());
+            assertEquals(2, metrics.getLastConsolidationOutputCount());
+            assertEquals(registry.getSnapshot().getIndex().getSizeInBytes(), metrics.getIndexSizeBytes());
+        }
+    }
+
+    // --------------------------------------------------
+    // Typical usage - JMX
+    // --------------------------------------------------
+
+    @Test
+    public void registerWithPlatformServer() throws Exception {
+        ZipCodeMetrics metrics = new ZipCodeMetrics();
+        metrics.recordLookup(true);
+        ObjectName name = metrics.register("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals("com.sc:type=ZipCodeMetrics,name=test", name.toString());
+            assertEquals(1L, server.getAttribute(name, "LookupCount"));
+            assertEquals(1.0, server.getAttribute(name, "HitRatio"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(name, "LookupCount"));
+        }
+        finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.sc.model.ZipCodeRangeFixtures.ranges;
+import static org.junit.Assert.*;
+
+public class ZipCodeMultiListIndexTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void tooManyLists() {
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("Too many exclusion lists, the maximum is 64: list64");
+        ZipCodeMultiListIndex index = new ZipCodeMultiListIndex();
+        for (int i = 0; i <= ZipCodeMultiListIndex.MAX_LISTS; i++) {
+            index.putList("list" + i, Collections.emptyList());
+        }
+    }
+
+    @Test
+    public void getMembershipOutOfRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code: 100000");
+        new ZipCodeMultiListIndex().getMembership(100000);
+    }
+
+    @Test
+    public void isExcludedWithInvalidListId() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid list id: 64");
+        new ZipCodeMultiListIndex().isExcluded(94133, 64);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void putListWithNullName() {
+        new ZipCodeMultiListIndex().putList(null, null);
+    }
+
+    // --------------------------------------------------
+    // Typical usage
+    // --------------------------------------------------
+
+    @Test
+    public void membershipAcrossLists() {
+        ZipCodeMultiListIndex index = new ZipCodeMultiListIndex();
+        assertEquals(0, index.putList("carrierA", ranges("94100,94199", "10000,10000")));
+        assertEquals(1, index.putList("carrierB", ranges("94150,94250")));
+        assertEquals(2, index.putList("hazmat", ranges("94133,94133", "94160,94160")));
+
+        assertEquals(0b101L, index.getMembership("94133"));
+        assertEquals(0b111L, index.getMembership("94160"));
+        assertEquals(0b011L, index.getMembership(94150));
+        assertEquals(0b010L, index.getMembership(94200));
+        assertEquals(0b001L, index.getMembership(10000));
+        assertEquals(0L, index.getMembership(10001));
+        assertEquals(Arrays.asList("carrierA", "carrierB", "hazmat"), index.getMemberLists(94160));
+        assertTrue(index.isExcluded(94133, "hazmat"));
+        assertFalse(index.isExcluded(94134, "hazmat"));
+        assertFalse(index.isExcluded(94133, "unknown"));
+        assertTrue(index.isExcluded(94133, index.getListId("hazmat")));
+        assertFalse(index.isExcluded(94133, 1));
+    }
+
+    @Test
+    public void putListWithOverlappingRanges() {
+        ZipCodeMultiListIndex index = new ZipCodeMultiListIndex();
+        index.putList("wide", ranges("00000,99999", "00000,99999", "50000,50010", "99999,00000"));
+        assertEquals(0b1L, index.getMembership(0));
+        assertEquals(0b1L, index.getMembership(99999));
+    }
+
+    @Test
+    public void replaceListKeepsOthers() {
+        ZipCodeMultiListIndex index = new ZipCodeMultiListIndex();
+        index.putList("carrierA", ranges("94100,94199"));
+        index.putList("carrierB", ranges("94150,94250"));
+        assertEquals(0, index.putList("carrierA", ranges("20000,20099")));
+
+        assertEquals(0b10L, index.getMembership(94150));
+        assertEquals(0b00L, index.getMembership(94100));
+        assertEquals(0b01L, index.getMembership(20050));
+        assertEquals(Arrays.asList("carrierA", "carrierB"), index.getListNames());
+    }
+
+    @Test
+    public void removeListFreesId() {
+        ZipCodeMultiListIndex index = new ZipCodeMultiListIndex();
+        index.putList("carrierA", ranges("94100,94199"));
+        index.putList("carrierB", ranges("94150,94250"));
+        assertTrue(index.removeList("carrierA"));
+        assertFalse(index.removeList("carrierA"));
+        assertEquals(-1, index.getListId("carrierA"));
+        assertEquals(0b10L, index.getMembership(94150));
+
+        assertEquals(0, index.putList("carrierC", ranges("00000,00000")));
+        assertEquals(Arrays.asList("carrierC", "carrierB"), index.getListNames());
+        assertEquals("ZipCodeMultiListIndex {lists: [carrierC, carrierB]}", index.toString());
+    }
+
+    @Test
+    public void allSixtyFourLists() {
+        ZipCodeMultiListIndex index = new ZipCodeMultiListIndex();
+        for (int i = 0; i < ZipCodeMultiListIndex.MAX_LISTS; i++) {
+            index.putList("list" + i, ranges("50000,50000"));
+        }
+        assertEquals(-1L, index.getMembership(50000));
+        assertEquals(64, index.getMemberLists(50000).size());
+        assertEquals(63, index.getListId("list63"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.sc.model.ZipCodeRangeFixtures.randomRanges;
+import static com.sc.model.ZipCodeRangeFixtures.ranges;
+import static org.junit.Assert.*;
+
+public class ZipCodeRangeDiffTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static List<ZipCodeRange> randomSnapshot(Random random) {
+        return ZipCodeUtils.consolidate(randomRanges(random, 500, 300));
+    }
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void betweenUnconsolidated() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Ranges must be consolidated: [00005,00020]");
+        ZipCodeRangeDiff.between(ranges("00000,00010", "00005,00020"), null);
+    }
+
+    @Test
+    public void createUnconsolidated() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Ranges must be consolidated: [00011,00020]");
+        new ZipCodeRangeDiff(null, ranges("00000,00010", "00011,00020"));
+    }
+
+    @Test
+    public void createOverlapping() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Ranges both added and removed: [[00005,00010], [00030,00030]]");
+        new ZipCodeRangeDiff(ranges("00000,00010", "00030,00040"), ranges("00005,00020", "00025,00030"));
+    }
+
+    // --------------------------------------------------
+    // Typical usage - between()
+    // --------------------------------------------------
+
+    @Test
+    public void betweenIdenticalSnapshots() {
+        List<ZipCodeRange> snapshot = ranges("00000,00010", "94133,94133");
+        ZipCodeRangeDiff diff = ZipCodeRangeDiff.between(snapshot, snapshot);
+        assertTrue(diff.isEmpty());
+        assertEquals("ZipCodeRangeDiff {added: [], removed: []}", diff.toString());
+        assertTrue(ZipCodeRangeDiff.between((List<ZipCodeRange>) null, null).isEmpty());
+    }
+
+    @Test
+    public void betweenChangedSnapshots() {
+        List<ZipCodeRange> oldRanges = ranges("00000,00010", "00100,00200", "94133,94133", "99990,99999");
+        List<ZipCodeRange> newRanges = ranges("00005,00010", "00100,00300", "94000,94199", "99990,99999");
+        ZipCodeRangeDiff diff = ZipCodeRangeDiff.between(oldRanges, newRanges);
+        assertFalse(diff.isEmpty());
+        assertEquals("ZipCodeRangeDiff {added: [[00201,00300], [94000,94132], [94134,94199]], " +
+            "removed: [[00000,00004]]}", diff.toString());
+        assertEquals(3, diff.getAdded().size());
+        assertEquals(1, diff.getRemoved().size());
+    }
+
+    // --------------------------------------------------
+    // Typical usage - apply()
+    // --------------------------------------------------
+
+    @Test
+    public void applyReceivedChangeset() {
+        ZipCodeRangeDiff diff = new ZipCodeRangeDiff(ranges("00050,00060"), ranges("00000,00009"));
+        assertEquals(ranges("00010,00020", "00050,00060").toString(),
+            diff.apply(ranges("00000,00020", "00055,00056")).toString());
+    }
+
+    @Test
+    public void applyReproducesNewSnapshot() {
+        Random random = new Random(24);
+        for (int i = 0; i < 50; i++) {
+            List<ZipCodeRange> oldRanges = randomSnapshot(random);
+            List<ZipCodeRange> newRanges = randomSnapshot(random);
+            ZipCodeRangeDiff diff = ZipCodeRangeDiff.between(oldRanges, newRanges);
+            assertEquals(newRanges.toString(), diff.apply(oldRanges).toString());
+            assertEquals(ZipCodeRangeOperations.difference(newRanges, oldRanges).toString(),
+                diff.getAdded().toString());
+            assertEquals(ZipCodeRangeOperations.difference(oldRanges, newRanges).toString(),
+                diff.getRemoved().toString());
+            assertTrue(ZipCodeRangeDiff.between(ZipCodeRangeList.fromList(newRanges),
+                diff.apply(ZipCodeRangeList.fromList(oldRanges))).isEmpty());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.sc.model.ZipCodeRangeFixtures.randomRanges;
+import static org.junit.Assert.*;
+
+public class ZipCodeRangeFileLoaderTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String content) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private static ZipCodeRangeFileLoader smallChunkLoader() {
+        return new ZipCodeRangeFileLoader(ForkJoinPool.commonPool(), 16);
+    }
+
+    // --------------------------------------------------
+    // Exceptions - load()
+    // --------------------------------------------------
+
+    @Test
+    public void createLoaderWithBadChunkSize() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid chunk size: 0");
+        new ZipCodeRangeFileLoader(ForkJoinPool.commonPool(), 0);
+    }
+
+    @Test
+    public void loadMissingFile() throws IOException {
+        thrown.expect(NoSuchFileException.class);
+        new ZipCodeRangeFileLoader().load(folder.getRoot().toPath().resolve("missing.txt"));
+    }
+
+    @Test
+    public void loadInvalidLine() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code range: 10000 - 20000 (line 2 of the chunk at offset 0, file offset 14)");
+        smallChunkLoader().load(write("[00000,00500]\n10000 - 20000\n[94133,94133]\n"));
+    }
+
+    // --------------------------------------------------
+    // Typical usage - load()
+    // --------------------------------------------------
+
+    @Test
+    public void loadEmptyFile() throws IOException {
+        ZipCodeRangeFileLoader.Result result = new ZipCodeRangeFileLoader().load(write(""));
+        assertEquals(0, result.getRanges().size());
+        assertEquals(0, result.getLineCount());
+        assertEquals(0, result.getByteCount());
+    }
+
+    @Test
+    public void loadSampleFile() throws IOException {
+        ZipCodeRangeFileLoader.Result result = smallChunkLoader()
+            .load(write("[94600,94699]\n[94133,94133]\n[94200,94299]\n[00000,00500]\n"));
+        assertEquals(4, result.getLineCount());
+        assertEquals(56, result.getByteCount());
+        List<ZipCodeRange> ranges = result.getRanges();
+        assertEquals(4, ranges.size());
+        assertArrayEquals(new int[] {0, 500}, ranges.get(0).getRangeArray());
+        assertArrayEquals(new int[] {94133, 94133}, ranges.get(1).getRangeArray());
+        assertArrayEquals(new int[] {94200, 94299}, ranges.get(2).getRangeArray());
+        assertArrayEquals(new int[] {94600, 94699}, ranges.get(3).getRangeArray());
+    }
+
+    @Test
+    public void loadWindowsLineEndingsAndBlankLines() throws IOException {
+        ZipCodeRangeFileLoader.Result result = smallChunkLoader()
+            .load(write("[10000,10099]\r\n\r\n  10100 , 10199 \r\n[20000,20000]"));
+        assertEquals(3, result.getLineCount());
+        List<ZipCodeRange> ranges = result.getRanges();
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new int[] {10000, 10199}, ranges.get(0).getRangeArray());
+        assertArrayEquals(new int[] {20000, 20000}, ranges.get(1).getRangeArray());
+    }
+
+    @Test
+    public void loadMatchesConsolidate() throws IOException {
+        Random random = new Random(11);
+        List<ZipCodeRange> expected = randomRanges(random, 5000, 50);
+        StringBuilder sb = new StringBuilder();
+        for (ZipCodeRange range : expected) {
+            sb.append(range.getRangeStr()).append('\n');
+        }
+        ZipCodeRangeFileLoader.Result result = new ZipCodeRangeFileLoader(ForkJoinPool.commonPool(), 1000)
+            .load(write(sb.toString()));
+        assertEquals(5000, result.getLineCount());
+        List<ZipCodeRange> actual = result.getRanges();
+        expected = ZipCodeUtils.consolidate(expected);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i).getRangeArray(), actual.get(i).getRangeArray());
+        }
+        assertTrue(result.getThroughputMBps() > 0);
+    }
+}
@@ -0,0 +1,175 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.sc.model.ZipCodeRangeFixtures.randomRanges;
+import static com.sc.model.ZipCodeRangeFixtures.ranges;
+import static org.junit.Assert.*;
+
+public class ZipCodeRangeOperationsTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static void assertRanges(List<ZipCodeRange> actual, String... expected) {
+        assertEquals(ranges(expected).toString(), actual.toString());
+    }
+
+    private static List<ZipCodeRange> randomSnapshot(Random random) {
+        return ZipCodeUtils.consolidate(randomRanges(random, 500, 500));
+    }
+
+    private static boolean[] toModel(List<ZipCodeRange> ranges) {
+        boolean[] result = new boolean[100000];
+        for (ZipCodeRange range : ranges) {
+            Arrays.fill(result, range.getStart(), range.getEnd() + 1, true);
+        }
+        return result;
+    }
+
+    private static List<ZipCodeRange> fromModel(boolean[] model) {
+        List<ZipCodeRange> result = new ArrayList<>();
+        for (int i = 0; i < model.length; i++) {
+            if (model[i]) {
+                int start = i;
+                while (i + 1 < model.length && model[i + 1]) {
+                    i++;
+                }
+                result.add(new ZipCodeRange(start, i));
+            }
+        }
+        return result;
+    }
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void unionOfUnconsolidated() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Ranges must be consolidated: [00021,00030]");
+        ZipCodeRangeOperations.union(ranges("10,20", "21,30"), ranges("40,50"));
+    }
+
+    @Test
+    public void complementOfUnsorted() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Ranges must be consolidated: [00010,00020]");
+        ZipCodeRangeOperations.complement(ranges("40,50", "10,20"));
+    }
+
+    // --------------------------------------------------
+    // Typical usage - union()
+    // --------------------------------------------------
+
+    @Test
+    public void unionMergesOverlappingAndAdjacent() {
+        assertRanges(ZipCodeRangeOperations.union(ranges("10,20", "40,50", "90,95"), ranges("15,30", "51,60")),
+            "10,30", "40,60", "90,95");
+    }
+
+    @Test
+    public void unionWithNull() {
+        List<ZipCodeRange> none = null;
+        assertRanges(ZipCodeRangeOperations.union(none, ranges("10,20")), "10,20");
+        assertTrue(ZipCodeRangeOperations.union(none, none).isEmpty());
+    }
+
+    // --------------------------------------------------
+    // Typical usage - intersection()
+    // --------------------------------------------------
+
+    @Test
+    public void intersectionOfServiceArea() {
+        assertRanges(ZipCodeRangeOperations.intersection(ranges("10,20", "30,40", "50,60"), ranges("15,55")),
+            "15,20", "30,40", "50,55");
+    }
+
+    @Test
+    public void intersectionOfDisjoint() {
+        assertTrue(ZipCodeRangeOperations.intersection(ranges("10,20"), ranges("21,30")).isEmpty());
+    }
+
+    // --------------------------------------------------
+    // Typical usage - difference()
+    // --------------------------------------------------
+
+    @Test
+    public void differenceSplits() {
+        assertRanges(ZipCodeRangeOperations.difference(ranges("10,100"), ranges("20,30", "50,50", "90,200")),
+            "10,19", "31,49", "51,89");
+    }
+
+    @Test
+    public void differenceSpanningSeveral() {
+        assertRanges(ZipCodeRangeOperations.difference(ranges("10,20", "30,40", "50,60"), ranges("15,55")),
+            "10,14", "56,60");
+    }
+
+    @Test
+    public void differenceOfEverything() {
+        assertTrue(ZipCodeRangeOperations.difference(ranges("10,20"), ranges("0,99999")).isEmpty());
+    }
+
+    // --------------------------------------------------
+    // Typical usage - complement()
+    // --------------------------------------------------
+
+    @Test
+    public void complementOfRanges() {
+        assertRanges(ZipCodeRangeOperations.complement(ranges("0,10", "500,600")), "11,499", "601,99999");
+        assertRanges(ZipCodeRangeOperations.complement(ranges("5,99999")), "0,4");
+        assertRanges(ZipCodeRangeOperations.complement((List<ZipCodeRange>) null), "0,99999");
+        assertTrue(ZipCodeRangeOperations.complement(ranges("0,99999")).isEmpty());
+    }
+
+    @Test
+    public void complementOfRangeList() {
+        ZipCodeRangeList ranges = new ZipCodeRangeList();
+        ranges.add(1, 99998);
+        assertEquals("ZipCodeRangeList {size: 2, ranges: [[00000,00000], [99999,99999]]}",
+            ZipCodeRangeOperations.complement(ranges).toString());
+    }
+
+    // --------------------------------------------------
+    // Typical usage - matches a per-ZIP model
+    // --------------------------------------------------
+
+    @Test
+    public void randomOperationsMatchModel() {
+        Random random = new Random(12);
+        for (int round = 0; round < 20; round++) {
+            List<ZipCodeRange> a = randomSnapshot(random);
+            List<ZipCodeRange> b = randomSnapshot(random);
+            boolean[] modelA = toModel(a);
+            boolean[] modelB = toModel(b);
+            boolean[] union = new boolean[100000];
+            boolean[] intersection = new boolean[100000];
+            boolean[] difference = new boolean[100000];
+            boolean[] complement = new boolean[100000];
+            for (int i = 0; i < 100000; i++) {
+                union[i] = modelA[i] || modelB[i];
+                intersection[i] = modelA[i] && modelB[i];
+                difference[i] = modelA[i] && !modelB[i];
+                complement[i] = !modelA[i];
+            }
+            assertEquals(fromModel(union).toString(), ZipCodeRangeOperations.union(a, b).toString());
+            assertEquals(fromModel(intersection).toString(), ZipCodeRangeOperations.intersection(a, b).toString());
+            assertEquals(fromModel(difference).toString(), ZipCodeRangeOperations.difference(a, b).toString());
+            assertEquals(fromModel(complement).toString(), ZipCodeRangeOperations.complement(a).toString());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.sc.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.sc.util.ZipCodeRangeParser.parse;
+import static com.sc.util.ZipCodeUtils.packRange;
+import static com.sc.util.ZipCodeUtils.unpackEnd;
+import static com.sc.util.ZipCodeUtils.unpackStart;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.*;
+
+public class ZipCodeRangeParserTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("\\[?\\s*(\\d{1,5})\\s*,\\s*(\\d{1,5})\\s*]?");
+
+    // --------------------------------------------------
+    // Exceptions - parse()
+    // --------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void parseNull() {
+        parse((CharSequence) null);
+    }
+
+    @Test
+    public void parseEmpty() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code range: ");
+        parse("");
+    }
+
+    @Test
+    public void parseTooManyDigits() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code range: 123456, 10000");
+        parse("123456, 10000");
+    }
+
+    @Test
+    public void parseTrailingCharacters() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code range: [10000,20000]]");
+        parse("[10000,20000]]");
+    }
+
+    @Test
+    public void parseCharArraySliceMessage() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code range: 1 - 2");
+        char[] chars = "xx1 - 2xx".toCharArray();
+        parse(chars, 2, 5);
+    }
+
+    @Test
+    public void parseByteArraySliceMessage() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(containsString("Invalid ZIP code range: 10000"));
+        byte[] bytes = "[10000]\n".getBytes(StandardCharsets.US_ASCII);
+        parse(bytes, 1, 5);
+    }
+
+    @Test
+    public void parseByteBufferSliceMessage() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code range: 10000");
+        ByteBuffer buffer = ByteBuffer.wrap("[10000]\n".getBytes(StandardCharsets.US_ASCII));
+        parse(buffer, 1, 5);
+    }
+
+    // --------------------------------------------------
+    // Typical usage - parse()
+    // --------------------------------------------------
+
+    @Test
+    public void parseWithBracketsAndWhitespace() {
+        long packed = parse("[ \t10006 \t, \t22222 \t]");
+        assertEquals(10006, unpackStart(packed));
+        assertEquals(22222, unpackEnd(packed));
+    }
+
+    @Test
+    public void parseReversed() {
+        assertEquals(packRange(22222, 33333), parse("33333,22222]"));
+    }
+
+    @Test
+    public void parseShortValues() {
+        assertEquals(packRange(0, 99999), parse("0,99999"));
+    }
+
+    @Test
+    public void parseCharArraySlice() {
+        char[] chars = "junk[00100,00500]junk".toCharArray();
+        assertEquals(packRange(100, 500), parse(chars, 4, 13));
+    }
+
+    @Test
+    public void parseByteArraySlice() {
+        byte[] bytes = "[94600,94699]\n[94133,94133]\n".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(packRange(94600, 94699), parse(bytes, 0, 13));
+        assertEquals(packRange(94133, 94133), parse(bytes, 14, 13));
+    }
+
+    @Test
+    public void parseByteBufferSlice() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(28);
+        buffer.put("[94600,94699]\n[94133,94133]\n".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(packRange(94600, 94699), parse(buffer, 0, 13));
+        assertEquals(packRange(94133, 94133), parse(buffer, 14, 13));
+        // the position is left unchanged
+        assertEquals(28, buffer.position());
+    }
+
+    @Test
+    public void parseMatchesRegularExpression() {
+        String alphabet = "[], \t\r\n0123456789-x";
+        Random random = new Random(7);
+        for (int i = 0; i < 50000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(16);
+            for (int j = 0; j < length; j++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = sb.toString();
+            Matcher matcher = RANGE_PATTERN.matcher(text);
+            if (matcher.matches()) {
+                int start = Integer.parseInt(matcher.group(1));
+                int end = Integer.parseInt(matcher.group(2));
+                assertEquals(text, packRange(Math.min(start, end), Math.max(start, end)), parse(text));
+            }
+            else {
+                try {
+                    parse(text);
+                    fail("Expected an exception for: " + text);
+                }
+                catch (IllegalArgumentException e) {
+                    assertEquals("Invalid ZIP code range: " + text, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // --------------------------------------------------
+    // Exceptions - parseZipPlus4()
+    // --------------------------------------------------
+
+    @Test
+    public void parseZipPlus4WithoutHyphen() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP+4 code: 94133 0101");
+        ZipCodeRangeParser.parseZipPlus4("94133 0101");
+    }
+
+    @Test
+    public void parseZipPlus4TooShort() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP+4 code: 94133-010");
+        ZipCodeRangeParser.parseZipPlus4("94133-010");
+    }
+
+    // --------------------------------------------------
+    // Typical usage - parseZipPlus4()
+    // --------------------------------------------------
+
+    @Test
+    public void parseZipPlus4() {
+        assertEquals(941330101, ZipCodeRangeParser.parseZipPlus4("94133-0101"));
+        assertEquals(941330101, ZipCodeRangeParser.parseZipPlus4("941330101"));
+        assertEquals(9999, ZipCodeRangeParser.parseZipPlus4("00000-9999"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.sc.model.ZipCodeRangeFixtures.randomRanges;
+import static org.junit.Assert.*;
+
+public class ZipCodeRangeQueryIndexTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static final ZipCodeRangeQueryIndex INDEX = new ZipCodeRangeQueryIndex(Arrays.asList(
+        new ZipCodeRange("94133,94133"), new ZipCodeRange("94200,94299"), new ZipCodeRange("94250,94310"),
+        new ZipCodeRange("00000,00009"), new ZipCodeRange("99990,99999")));
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void countExcludedWithInvalidZipCode() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code: 100000");
+        INDEX.countExcluded(0, 100000);
+    }
+
+    @Test
+    public void nextAllowedWithInvalidZipCode() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code: -1");
+        INDEX.nextAllowed(-1);
+    }
+
+    // --------------------------------------------------
+    // Typical usage - countExcluded()
+    // --------------------------------------------------
+
+    @Test
+    public void countExcluded() {
+        assertEquals(4, INDEX.getRangeCount());
+        assertEquals(132, INDEX.getExcludedCount());
+        assertEquals(132, INDEX.countExcluded(0, 99999));
+        assertEquals(1, INDEX.countExcluded(94133, 94133));
+        assertEquals(0, INDEX.countExcluded(94134, 94199));
+        assertEquals(107, INDEX.countExcluded(94305, 94100));
+        assertEquals(5, INDEX.countExcluded(5, 100));
+        assertEquals("ZipCodeRangeQueryIndex {ranges: 4, excluded: 132}", INDEX.toString());
+    }
+
+    @Test
+    public void fullyAllowedAndExcluded() {
+        assertTrue(INDEX.isFullyAllowed(10, 94132));
+        assertFalse(INDEX.isFullyAllowed(10, 94133));
+        assertTrue(INDEX.isFullyExcluded(94200, 94310));
+        assertTrue(INDEX.isFullyExcluded(94133, 94133));
+        assertFalse(INDEX.isFullyExcluded(94133, 94134));
+        assertFalse(INDEX.isFullyExcluded(94199, 94200));
+        assertFalse(INDEX.isFullyExcluded(10, 10));
+    }
+
+    // --------------------------------------------------
+    // Typical usage - nextAllowed() / nextExcluded()
+    // --------------------------------------------------
+
+    @Test
+    public void nextAllowed() {
+        assertEquals(10, INDEX.nextAllowed(0));
+        assertEquals(10, INDEX.nextAllowed(10));
+        assertEquals(94134, INDEX.nextAllowed(94133));
+        assertEquals(94311, INDEX.nextAllowed(94250));
+        assertEquals(-1, INDEX.nextAllowed(99995));
+        assertEquals(0, new ZipCodeRangeQueryIndex(null).nextAllowed(0));
+    }
+
+    @Test
+    public void nextExcluded() {
+        assertEquals(5, INDEX.nextExcluded(5));
+        assertEquals(94133, INDEX.nextExcluded(10));
+        assertEquals(94200, INDEX.nextExcluded(94134));
+        assertEquals(94300, INDEX.nextExcluded(94300));
+        assertEquals(99990, INDEX.nextExcluded(94311));
+        assertEquals(-1, new ZipCodeRangeQueryIndex(Collections.emptyList()).nextExcluded(0));
+    }
+
+    @Test
+    public void matchesPointLookups() {
+        Random random = new Random(23);
+        List<ZipCodeRange> ranges = randomRanges(random, 2000, 30);
+        ZipCodeRangeList packed = ZipCodeRangeList.fromList(ranges);
+        ZipCodeRangeQueryIndex index = ZipCodeRangeQueryIndex.fromRangeList(packed);
+        // the source list is not consolidated in place
+        assertEquals(2000, packed.size());
+        ZipCodeExclusionIndex bitmap = new ZipCodeExclusionIndex(ranges);
+        int[] counts = new int[100001];
+        for (int zipCode = 0; zipCode < 100000; zipCode++) {
+            counts[zipCode + 1] = counts[zipCode] + (bitmap.isExcluded(zipCode) ? 1 : 0);
+            assertEquals(bitmap.isExcluded(zipCode), index.isExcluded(zipCode));
+        }
+        for (int i = 0; i < 10000; i++) {
+            int a = random.nextInt(100000);
+            int b = Math.min(99999, a + random.nextInt(200));
+            int excluded = counts[b + 1] - counts[a];
+            assertEquals(excluded, index.countExcluded(a, b));
+            assertEquals(excluded == 0, index.isFullyAllowed(a, b));
+            assertEquals(excluded == b - a + 1, index.isFullyExcluded(a, b));
+            int next = a;
+            while (next <= 99999 && bitmap.isExcluded(next)) {
+                next++;
+            }
+            assertEquals(next > 99999 ? -1 : next, index.nextAllowed(a));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.sc.model.ZipCodeRangeFixtures.randomRanges;
+import static org.junit.Assert.*;
+
+public class ZipCodeRangeSnapshotFormatTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static byte[] write(List<ZipCodeRange> ranges) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipCodeRangeSnapshotFormat.write(ranges, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] sample() throws IOException {
+        return write(Arrays.asList(new ZipCodeRange("00000,00500"), new ZipCodeRange("94133,94133"),
+            new ZipCodeRange("94200,94299"), new ZipCodeRange("94600,94699")));
+    }
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void writeUnconsolidated() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Ranges must be sorted and non-overlapping: [00010,00030]");
+        write(Arrays.asList(new ZipCodeRange("0,20"), new ZipCodeRange("10,30")));
+    }
+
+    @Test
+    public void readTruncated() throws IOException {
+        thrown.expect(EOFException.class);
+        ZipCodeRangeSnapshotFormat.readRanges(new byte[] {'Z', 'C', 'R', 'S'});
+    }
+
+    @Test
+    public void readBadMagic() throws IOException {
+        thrown.expect(IOException.class);
+        thrown.expectMessage("Not a ZIP code range snapshot");
+        byte[] snapshot = sample();
+        snapshot[0] = 'X';
+        ZipCodeRangeSnapshotFormat.readRanges(snapshot);
+    }
+
+    @Test
+    public void readBadVersion() throws IOException {
+        thrown.expect(IOException.class);
+        thrown.expectMessage("Unsupported snapshot version: 9");
+        byte[] snapshot = sample();
+        snapshot[4] = 9;
+        ZipCodeRangeSnapshotFormat.readRanges(snapshot);
+    }
+
+    @Test
+    public void readCorrupted() throws IOException {
+        thrown.expect(IOException.class);
+        thrown.expectMessage("Snapshot checksum mismatch");
+        byte[] snapshot = sample();
+        snapshot[10] ^= 1;
+        ZipCodeRangeSnapshotFormat.readRanges(snapshot);
+    }
+
+    // --------------------------------------------------
+    // Typical usage
+    // --------------------------------------------------
+
+    @Test
+    public void roundTripEmpty() throws IOException {
+        byte[] snapshot = write(Collections.emptyList());
+        assertEquals(13, snapshot.length);
+        assertEquals(0, ZipCodeRangeSnapshotFormat.readRanges(snapshot).size());
+    }
+
+    @Test
+    public void roundTripSample() throws IOException {
+        byte[] snapshot = sample();
+        ZipCodeRangeList ranges = ZipCodeRangeSnapshotFormat.readRanges(new ByteArrayInputStream(snapshot));
+        assertEquals(4, ranges.size());
+        assertArrayEquals(new int[] {0, 500}, ranges.get(0).getRangeArray());
+        assertArrayEquals(new int[] {94133, 94133}, ranges.get(1).getRangeArray());
+        assertArrayEquals(new int[] {94200, 94299}, ranges.get(2).getRangeArray());
+        assertArrayEquals(new int[] {94600, 94699}, ranges.get(3).getRangeArray());
+    }
+
+    @Test
+    public void readIndex() throws IOException {
+        ZipCodeExclusionIndex index = ZipCodeRangeSnapshotFormat.readIndex(new ByteArrayInputStream(sample()));
+        assertTrue(index.isExcluded(500));
+        assertFalse(index.isExcluded(501));
+        assertTrue(index.isExcluded(94133));
+        assertEquals(702, index.getExcludedCount());
+    }
+
+    @Test
+    public void roundTripRandomIsCompact() throws IOException {
+        Random random = new Random(13);
+        List<ZipCodeRange> ranges = randomRanges(random, 20000, 10);
+        List<ZipCodeRange> consolidated = ZipCodeUtils.consolidate(ranges);
+        byte[] snapshot = write(consolidated);
+        assertTrue(snapshot.length < 13 + consolidated.size() * 3);
+        List<ZipCodeRange> actual = ZipCodeRangeSnapshotFormat.readRanges(snapshot).toList();
+        assertEquals(consolidated.size(), actual.size());
+        for (int i = 0; i < actual.size(); i++) {
+            assertArrayEquals(consolidated.get(i).getRangeArray(), actual.get(i).getRangeArray());
+        }
+    }
+}
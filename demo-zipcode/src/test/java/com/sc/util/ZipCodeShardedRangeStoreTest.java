@@ -0,0 +1,131 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipCodeRangeList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.sc.model.ZipCodeRangeFixtures.randomRanges;
+import static com.sc.model.ZipCodeRangeFixtures.ranges;
+import static org.junit.Assert.*;
+
+public class ZipCodeShardedRangeStoreTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static String format(List<ZipCodeRange> ranges) {
+        return ranges.stream().map(ZipCodeRange::getRangeStr).collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void replaceShardWithInvalidPrefix() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code prefix: 1000");
+        new ZipCodeShardedRangeStore().replaceShard(1000, null);
+    }
+
+    @Test
+    public void replaceShardWithRangeOutsidePrefix() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("ZIP code range outside prefix 941: [94190,94200]");
+        new ZipCodeShardedRangeStore().replaceShard(941, ranges("94100,94110", "94190,94200"));
+    }
+
+    @Test
+    public void isExcludedWithInvalidZipCode() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP code: 100000");
+        new ZipCodeShardedRangeStore().isExcluded(100000);
+    }
+
+    // --------------------------------------------------
+    // Typical usage
+    // --------------------------------------------------
+
+    @Test
+    public void emptyStore() {
+        ZipCodeShardedRangeStore store = new ZipCodeShardedRangeStore();
+        assertFalse(store.isExcluded(0));
+        assertFalse(store.isExcluded("99999"));
+        assertTrue(store.toRangeList().isEmpty());
+        assertEquals("ZipCodeShardedRangeStore {ranges: 0, fullPrefixes: 0}", store.toString());
+    }
+
+    @Test
+    public void loadSplitsAndJoinsRangesAcrossPrefixes() {
+        ZipCodeShardedRangeStore store = new ZipCodeShardedRangeStore();
+        store.load(ranges("94133,94133", "94150,94420", "00000,00010", "00005,00020"));
+        assertEquals(6, store.getRangeCount());
+        assertEquals(2, store.getFullPrefixCount());
+        assertTrue(store.isPrefixExcluded(942));
+        assertTrue(store.isPrefixExcluded(943));
+        assertFalse(store.isPrefixExcluded(941));
+        assertEquals("[[94133,94133], [94150,94199]]", format(store.getShardRanges(941)));
+        assertEquals("[[94400,94420]]", format(store.getShardRanges(944)));
+        assertEquals("[[00000,00020], [94133,94133], [94150,94420]]", format(store.toRangeList().toList()));
+        assertTrue(store.isExcluded(94250));
+        assertTrue(store.isExcluded(94420));
+        assertFalse(store.isExcluded(94421));
+        assertFalse(store.isExcluded(94134));
+    }
+
+    @Test
+    public void replaceShardLeavesOtherShards() {
+        ZipCodeShardedRangeStore store = new ZipCodeShardedRangeStore();
+        store.load(ranges("94100,94299"));
+        store.replaceShard(941, ranges("94110,94120", "94115,94130"));
+        assertEquals("[[94110,94130]]", format(store.getShardRanges(941)));
+        assertTrue(store.isPrefixExcluded(942));
+        assertFalse(store.isExcluded(94100));
+        store.replaceShard(942, null);
+        assertEquals("[[94110,94130]]", format(store.toRangeList().toList()));
+        store.clear();
+        assertEquals(0, store.getRangeCount());
+    }
+
+    @Test
+    public void addUpdatesOnlyCoveredShards() {
+        ZipCodeShardedRangeStore store = new ZipCodeShardedRangeStore();
+        store.add(94199, 94150);
+        store.add(new ZipCodeRange("94100,94149"));
+        store.add(94120, 94210);
+        assertTrue(store.isPrefixExcluded(941));
+        assertEquals("[[94200,94210]]", format(store.getShardRanges(942)));
+        assertEquals("[[94100,94210]]", format(store.toRangeList().toList()));
+    }
+
+    @Test
+    public void concurrentAddsAreNotLost() {
+        ZipCodeShardedRangeStore store = new ZipCodeShardedRangeStore();
+        IntStream.range(0, 100).parallel().forEach(i -> store.add(94100 + i, 94100 + i));
+        assertTrue(store.isPrefixExcluded(941));
+        assertEquals(1, store.getRangeCount());
+    }
+
+    @Test
+    public void matchesConsolidatedList() {
+        Random random = new Random(21);
+        List<ZipCodeRange> ranges = randomRanges(random, 5000, 500);
+        ZipCodeShardedRangeStore store = new ZipCodeShardedRangeStore();
+        store.load(ZipCodeRangeList.fromList(ranges));
+        List<ZipCodeRange> consolidated = ZipCodeUtils.consolidate(ranges);
+        assertEquals(consolidated.toString(), store.toRangeList().toList().toString());
+        for (int zipCode = 0; zipCode < 100000; zipCode++) {
+            assertEquals(ZipCodeUtils.isExcluded(zipCode, consolidated), store.isExcluded(zipCode));
+        }
+    }
+}
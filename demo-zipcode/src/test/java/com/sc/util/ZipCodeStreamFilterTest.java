@@ -0,0 +1,110 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ZipCodeStreamFilterTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static final ZipCodeExclusionIndex INDEX = new ZipCodeExclusionIndex(Arrays.asList(
+        new ZipCodeRange("94133,94133"), new ZipCodeRange("94200,94299")));
+
+    private ZipCodeStreamFilter.Result lastResult;
+
+    private String filter(ZipCodeStreamFilter filter, String input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        this.lastResult = filter.filter(Channels.newChannel(new ByteArrayInputStream(
+            input.getBytes(StandardCharsets.US_ASCII))), Channels.newChannel(out));
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void createWithNegativeColumn() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid column: -1");
+        new ZipCodeStreamFilter(INDEX, ZipCodeStreamFilter.Mode.ALLOWED, (byte) ',', -1, 1024);
+    }
+
+    @Test
+    public void createWithZeroBufferSize() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid buffer size: 0");
+        new ZipCodeStreamFilter(INDEX, ZipCodeStreamFilter.Mode.ALLOWED, (byte) ',', 0, 0);
+    }
+
+    // --------------------------------------------------
+    // Typical usage
+    // --------------------------------------------------
+
+    @Test
+    public void filterAllowedZipCodes() throws IOException {
+        String output = filter(new ZipCodeStreamFilter(INDEX, ZipCodeStreamFilter.Mode.ALLOWED),
+            "94133\n94134\r\n\n94250\nbad\n10001");
+        assertEquals("94134\n10001\n", output);
+        assertEquals(5, this.lastResult.getRecordCount());
+        assertEquals(2, this.lastResult.getExcludedCount());
+        assertEquals(2, this.lastResult.getAllowedCount());
+        assertEquals(1, this.lastResult.getInvalidCount());
+        assertEquals(29, this.lastResult.getByteCount());
+        assertTrue(this.lastResult.toString().startsWith("Processed 5 records (2 excluded, 2 allowed, 1 invalid)"));
+    }
+
+    @Test
+    public void filterExcludedRecords() throws IOException {
+        String output = filter(new ZipCodeStreamFilter(INDEX, ZipCodeStreamFilter.Mode.EXCLUDED, (byte) '|', 2, 1024),
+            "1|Main St| 94133 |CA\n2|Elm St|94134|CA\n3|Oak St|94201-1234|CA\n4|short\n");
+        assertEquals("1|Main St| 94133 |CA\n3|Oak St|94201-1234|CA\n", output);
+        assertEquals(1, this.lastResult.getInvalidCount());
+    }
+
+    @Test
+    public void annotateRecords() throws IOException {
+        String output = filter(new ZipCodeStreamFilter(INDEX, ZipCodeStreamFilter.Mode.ANNOTATE, (byte) '\t', 1, 1024),
+            "a\t94133\nb\t94134\nc\t9413x\n");
+        assertEquals("a\t94133\ttrue\nb\t94134\tfalse\nc\t9413x\tinvalid\n", output);
+    }
+
+    @Test
+    public void recordsLongerThanBuffers() throws IOException {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        Random random = new Random(16);
+        for (int i = 0; i < 2000; i++) {
+            char[] padding = new char[random.nextInt(40)];
+            Arrays.fill(padding, 'x');
+            String zipCode = String.format("%05d", 94100 + random.nextInt(300));
+            String record = new String(padding) + "," + zipCode;
+            input.append(record).append('\n');
+            if (!INDEX.isExcluded(Integer.parseInt(zipCode))) {
+                expected.append(record).append('\n');
+            }
+        }
+        // an 8-byte buffer forces the read buffer to grow and most records to bypass the write buffer
+        assertEquals(expected.toString(), filter(new ZipCodeStreamFilter(INDEX, ZipCodeStreamFilter.Mode.ALLOWED,
+            (byte) ',', 1, 8), input.toString()));
+        assertEquals(expected.toString(), filter(new ZipCodeStreamFilter(INDEX, ZipCodeStreamFilter.Mode.ALLOWED,
+            (byte) ',', 1, 100), input.toString()));
+        assertEquals(2000, this.lastResult.getRecordCount());
+    }
+}
@@ -6,9 +6,12 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static com.sc.util.ZipCodeUtils.isExcluded;
+import static com.sc.util.ZipCodeUtils.isExcludedBatch;
 import static com.sc.util.ZipCodeUtils.isInRange;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.*;
@@ -94,6 +97,41 @@ public class ZipCodeUtilsTest {
         assertArrayEquals(new int[] {10001, 20101}, list.get(0).getRangeArray());
     }
 
+    @Test
+    public void consolidateRangeAdjacentChain() {
+        ZipCodeRange zcr1 = new ZipCodeRange("10200,10299");
+        ZipCodeRange zcr2 = new ZipCodeRange("10000,10099");
+        ZipCodeRange zcr3 = new ZipCodeRange("10100,10199");
+        ZipCodeRange zcr4 = new ZipCodeRange("10301,10400");
+        List<ZipCodeRange> list = consolidate(Arrays.asList(zcr1, zcr2, zcr3, zcr4));
+        assertEquals(2, list.size());
+        assertArrayEquals(new int[] {10000, 10299}, list.get(0).getRangeArray());
+        assertArrayEquals(new int[] {10301, 10400}, list.get(1).getRangeArray());
+    }
+
+    @Test
+    public void consolidateRangeContainedAndDuplicate() {
+        ZipCodeRange zcr1 = new ZipCodeRange("10000,20000");
+        ZipCodeRange zcr2 = new ZipCodeRange("12000,13000");
+        ZipCodeRange zcr3 = new ZipCodeRange("10000,20000");
+        List<ZipCodeRange> list = consolidate(Arrays.asList(zcr1, zcr2, zcr3));
+        assertEquals(1, list.size());
+        assertArrayEquals(new int[] {10000, 20000}, list.get(0).getRangeArray());
+    }
+
+    @Test
+    public void consolidateRangeDoesNotModifyInput() {
+        ZipCodeRange zcr1 = new ZipCodeRange("20100,20150");
+        ZipCodeRange zcr2 = new ZipCodeRange("10100,10150");
+        ZipCodeRange zcr3 = new ZipCodeRange("10151,10200");
+        List<ZipCodeRange> input = Arrays.asList(zcr1, zcr2, zcr3);
+        consolidate(input);
+        assertSame(zcr1, input.get(0));
+        assertSame(zcr2, input.get(1));
+        assertSame(zcr3, input.get(2));
+        assertArrayEquals(new int[] {10100, 10150}, zcr2.getRangeArray());
+    }
+
     // --------------------------------------------------
     // Typical usage - isExcluded(String)
     // --------------------------------------------------
@@ -188,6 +226,39 @@ public class ZipCodeUtilsTest {
         assertFalse(isExcluded(123456, Arrays.asList(zcr1, zcr2)));
     }
 
+    // --------------------------------------------------
+    // Typical usage - isExcluded(batch)
+    // --------------------------------------------------
+
+    @Test
+    public void checkIfIntBatchExcluded() {
+        ZipCodeRange zcr1 = new ZipCodeRange("10000, 19999");
+        ZipCodeRange zcr2 = new ZipCodeRange("20001, 29999");
+        boolean[] result = isExcludedBatch(new int[] {11111, 20000, 22222}, Arrays.asList(zcr1, zcr2));
+        assertArrayEquals(new boolean[] {true, false, true}, result);
+    }
+
+    @Test
+    public void checkIfStringBatchExcluded() {
+        ZipCodeRange zcr1 = new ZipCodeRange("10000, 19999");
+        ZipCodeRange zcr2 = new ZipCodeRange("20001, 29999");
+        boolean[] result = isExcludedBatch(new String[] {"11111", null, "20000", "22222"}, Arrays.asList(zcr1, zcr2));
+        assertArrayEquals(new boolean[] {true, false, false, true}, result);
+    }
+
+    @Test
+    public void checkIfStreamBatchExcludedNullRange() {
+        BitSet result = isExcludedBatch(IntStream.of(11111, 22222), null);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void checkIfBadStringBatchExcluded() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(containsString("Invalid ZIP code: 2222"));
+        isExcludedBatch(new String[] {"11111", "2222"}, null);
+    }
+
     // --------------------------------------------------
     // Typical usage - isInRange()
     // --------------------------------------------------
@@ -0,0 +1,142 @@
+package com.sc.util;
+
+import com.sc.model.ZipCodeRange;
+import com.sc.model.ZipPlus4Range;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ZipPlus4IndexTest {
+    // --------------------------------------------------
+    // Reusable
+    // --------------------------------------------------
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    // --------------------------------------------------
+    // Exceptions
+    // --------------------------------------------------
+
+    @Test
+    public void isExcludedOutOfRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP+4 code: -1");
+        new ZipPlus4Index(null).isExcluded(-1);
+    }
+
+    @Test
+    public void isExcludedBadString() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Invalid ZIP+4 code: 94133");
+        new ZipPlus4Index(null).isExcluded("94133");
+    }
+
+    // --------------------------------------------------
+    // Typical usage
+    // --------------------------------------------------
+
+    @Test
+    public void emptyIndex() {
+        ZipPlus4Index index = new ZipPlus4Index(Collections.emptyList());
+        assertFalse(index.isExcluded(0));
+        assertFalse(index.isExcluded(ZipPlus4Range.MAX_ZIP_PLUS_4));
+        assertEquals(0, index.getExcludedCount());
+    }
+
+    @Test
+    public void fiveDigitRangesKeepWorking() {
+        ZipPlus4Index index = ZipPlus4Index.fromZipCodeRanges(Arrays.asList(
+            new ZipCodeRange("94133,94133"), new ZipCodeRange("94200,94299"), new ZipCodeRange("99999,99999")));
+        assertTrue(index.isExcluded("94133-0000"));
+        assertTrue(index.isExcluded("94133-9999"));
+        assertFalse(index.isExcluded("94134-0000"));
+        assertTrue(index.isExcluded("94250-1234"));
+        assertTrue(index.isExcluded(ZipPlus4Range.MAX_ZIP_PLUS_4));
+        assertEquals(102 * 10000L, index.getExcludedCount());
+        assertTrue(index.toString().contains(
+            "fullBuckets: 102, arrayContainers: 0, bitmapContainers: 0, runContainers: 0"));
+    }
+
+    @Test
+    public void chooseContainers() {
+        List<ZipPlus4Range> ranges = new ArrayList<>();
+        // a few scattered codes in 10000: array
+        ranges.add(new ZipPlus4Range(100000005, 100000005));
+        ranges.add(new ZipPlus4Range(100000007, 100000007));
+        // every other code in 20000: bitmap
+        for (int low = 0; low < 10000; low += 2) {
+            ranges.add(new ZipPlus4Range(200000000 + low, 200000000 + low));
+        }
+        // a long run in 30000: run
+        ranges.add(new ZipPlus4Range("30000-0100,30000-8000"));
+        ZipPlus4Index index = new ZipPlus4Index(ranges);
+        assertTrue(index.toString().contains(
+            "fullBuckets: 0, arrayContainers: 1, bitmapContainers: 1, runContainers: 1"));
+
+        assertTrue(index.isExcluded("10000-0005"));
+        assertFalse(index.isExcluded("10000-0006"));
+        assertTrue(index.isExcluded("20000-9998"));
+        assertFalse(index.isExcluded("20000-9999"));
+        assertFalse(index.isExcluded("30000-0099"));
+        assertTrue(index.isExcluded("30000-0100"));
+        assertTrue(index.isExcluded("30000-8000"));
+        assertFalse(index.isExcluded("30000-8001"));
+        assertEquals(2 + 5000 + 7901, index.getExcludedCount());
+    }
+
+    @Test
+    public void rangeAcrossBuckets() {
+        ZipPlus4Index index = new ZipPlus4Index(Arrays.asList(
+            new ZipPlus4Range("12345-5000,12350-0010"), new ZipPlus4Range("12349-0000,12349-0100")));
+        assertFalse(index.isExcluded("12345-4999"));
+        assertTrue(index.isExcluded("12345-5000"));
+        assertTrue(index.isExcluded("12347-0000"));
+        assertTrue(index.isExcluded("12350-0010"));
+        assertFalse(index.isExcluded("12350-0011"));
+        assertEquals(5000 + 40000 + 11, index.getExcludedCount());
+    }
+
+    @Test
+    public void memoryScalesWithRanges() {
+        List<ZipPlus4Range> ranges = new ArrayList<>();
+        for (int zipCode = 0; zipCode < 100000; zipCode += 10) {
+            ranges.add(new ZipPlus4Range(zipCode * 10000 + 10, zipCode * 10000 + 20));
+        }
+        ZipPlus4Index index = new ZipPlus4Index(ranges);
+        // 10,000 single-run containers on top of the fixed bucket tables
+        assertTrue(index.getSizeInBytes() < 32000 + 10000 * 8);
+    }
+
+    @Test
+    public void randomRangesMatchModel() {
+        Random random = new Random(13);
+        List<ZipPlus4Range> ranges = new ArrayList<>();
+        // cluster the ranges into a few ZIP codes so that buckets get every kind of container
+        for (int i = 0; i < 3000; i++) {
+            int base = (90000 + random.nextInt(20)) * 10000;
+            int start = base + random.nextInt(10000);
+            int length = random.nextInt(4) == 0 ? random.nextInt(30000) : random.nextInt(5);
+            ranges.add(new ZipPlus4Range(start, Math.min(ZipPlus4Range.MAX_ZIP_PLUS_4, start + length)));
+        }
+        boolean[] model = new boolean[250000];
+        for (ZipPlus4Range range : ranges) {
+            int from = range.getStart() - 900000000;
+            Arrays.fill(model, from, Math.min(model.length, range.getEnd() - 900000000 + 1), true);
+        }
+        ZipPlus4Index index = new ZipPlus4Index(ranges);
+        for (int i = 0; i < model.length; i++) {
+            if (model[i] != index.isExcluded(900000000 + i)) {
+                fail("Mismatch for " + ZipPlus4Range.format(900000000 + i));
+            }
+        }
+    }
+}